@@ -0,0 +1,56 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.dto.LoginRequestDto;
+import com.openclassrooms.starterjwt.dto.TokenResponseDto;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.HmacJwtFactory;
+import com.openclassrooms.starterjwt.security.JwtService;
+import com.openclassrooms.starterjwt.security.UserDetailsCache;
+import com.openclassrooms.starterjwt.security.UserDetailsServiceImplementation;
+import com.openclassrooms.starterjwt.services.AuthenticationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login complet via {@link AuthenticationService#authenticate} avec le vrai {@link BCryptPasswordEncoder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationServiceBenchmark {
+
+    private AuthenticationService authenticationService;
+    private LoginRequestDto request;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        User user = BenchmarkFixtures.user(passwordEncoder.encode(BenchmarkFixtures.PASSWORD));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new UserDetailsServiceImplementation(
+                BenchmarkFixtures.inMemoryRepository(user), new UserDetailsCache(false, 1, 1)));
+        provider.setPasswordEncoder(passwordEncoder);
+
+        HmacJwtFactory jwtFactory = new HmacJwtFactory(BenchmarkFixtures.SECRET, null, HmacJwtFactory.Engine.COMPACT);
+        authenticationService = new AuthenticationService(new ProviderManager(provider), new JwtService(jwtFactory));
+        request = new LoginRequestDto(BenchmarkFixtures.EMAIL, BenchmarkFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public TokenResponseDto authenticate() {
+        try {
+            return authenticationService.authenticate(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
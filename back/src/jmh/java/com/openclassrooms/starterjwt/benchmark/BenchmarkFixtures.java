@@ -0,0 +1,55 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.models.AppUserDetails;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/**
+ * Données partagées par les benchmarks : un utilisateur, son principal et un repository en mémoire.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "0123456789abcdef0123456789abcdef";
+    static final String EMAIL = "john@example.com";
+    static final String PASSWORD = "password123";
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(String encodedPassword) {
+        return User.builder()
+                .id(42L)
+                .email(EMAIL)
+                .firstName("John")
+                .lastName("Doe")
+                .password(encodedPassword)
+                .admin(false)
+                .build();
+    }
+
+    static Authentication authentication(User user) {
+        AppUserDetails principal = new AppUserDetails(user);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    /**
+     * Repository answering {@code findByEmail} from memory, so that benchmarks measure the
+     * authentication code rather than a database round trip.
+     */
+    static UserRepository inMemoryRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByEmail")) {
+                        return user.getEmail().equals(args[0]) ? Optional.of(user) : Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
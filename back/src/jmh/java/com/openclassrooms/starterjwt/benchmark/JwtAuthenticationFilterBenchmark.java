@@ -0,0 +1,65 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.HmacJwtFactory;
+import com.openclassrooms.starterjwt.security.JwtAuthenticationFilter;
+import com.openclassrooms.starterjwt.security.JwtService;
+import com.openclassrooms.starterjwt.security.UserDetailsCache;
+import com.openclassrooms.starterjwt.security.UserDetailsServiceImplementation;
+import com.openclassrooms.starterjwt.security.VerifiedTokenCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passage complet dans {@link JwtAuthenticationFilter} avec des objets servlet simulés,
+ * en mode claims seuls ou avec relecture de l'utilisateur (repository en mémoire, sans cache).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"NIMBUS", "COMPACT"})
+    private HmacJwtFactory.Engine engine;
+
+    @Param({"false", "true"})
+    private boolean dbLookup;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkFixtures.user("unused");
+        HmacJwtFactory jwtFactory = new HmacJwtFactory(BenchmarkFixtures.SECRET, new VerifiedTokenCache(10_000), engine);
+        UserDetailsServiceImplementation userDetailsService = new UserDetailsServiceImplementation(
+                BenchmarkFixtures.inMemoryRepository(user), new UserDetailsCache(false, 1, 1));
+        filter = new JwtAuthenticationFilter(new JwtService(jwtFactory), userDetailsService, dbLookup);
+        authorization = "Bearer " + jwtFactory.generateToken(BenchmarkFixtures.authentication(user));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
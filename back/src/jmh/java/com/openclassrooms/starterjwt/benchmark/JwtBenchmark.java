@@ -0,0 +1,59 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.models.AppUserDetails;
+import com.openclassrooms.starterjwt.security.HmacJwtFactory;
+import com.openclassrooms.starterjwt.security.JwtService;
+import com.openclassrooms.starterjwt.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'émission et de la vérification d'un token, par moteur HS256 et avec ou sans cache de tokens vérifiés.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    @Param({"NIMBUS", "COMPACT"})
+    private HmacJwtFactory.Engine engine;
+
+    @Param({"false", "true"})
+    private boolean tokenCache;
+
+    private HmacJwtFactory jwtFactory;
+    private JwtService jwtService;
+    private Authentication authentication;
+    private AppUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtFactory = new HmacJwtFactory(BenchmarkFixtures.SECRET,
+                tokenCache ? new VerifiedTokenCache(10_000) : null, engine);
+        jwtService = new JwtService(jwtFactory);
+        authentication = BenchmarkFixtures.authentication(BenchmarkFixtures.user("unused"));
+        userDetails = (AppUserDetails) authentication.getPrincipal();
+        token = jwtFactory.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtFactory.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtFactory.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+}
@@ -0,0 +1,108 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.dto.LoginRequestDto;
+import com.openclassrooms.starterjwt.dto.RegisterRequestDto;
+import com.openclassrooms.starterjwt.dto.TokenResponseDto;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import com.openclassrooms.starterjwt.security.HmacJwtFactory;
+import com.openclassrooms.starterjwt.security.JwtService;
+import com.openclassrooms.starterjwt.security.UserDetailsCache;
+import com.openclassrooms.starterjwt.security.UserDetailsServiceImplementation;
+import com.openclassrooms.starterjwt.services.AuthenticationService;
+import com.openclassrooms.starterjwt.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une inscription : l'ancien enchaînement (deux {@code existsByEmail}, un hachage,
+ * puis un login complet qui relit l'utilisateur et revérifie le mot de passe) contre
+ * {@link UserService#createUser} suivi de {@link AuthenticationService#issueToken}.
+ * Côté repository, l'ancien chemin fait quatre appels par inscription, le nouveau un seul.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistrationBenchmark {
+
+    private UserRepository userRepository;
+    private BCryptPasswordEncoder passwordEncoder;
+    private UserService userService;
+    private AuthenticationService authenticationService;
+    private RegisterRequestDto request;
+    private User stored;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        userRepository = inMemoryRepository();
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new UserDetailsServiceImplementation(userRepository, new UserDetailsCache(false, 1, 1)));
+        provider.setPasswordEncoder(passwordEncoder);
+
+        HmacJwtFactory jwtFactory = new HmacJwtFactory(BenchmarkFixtures.SECRET, null, HmacJwtFactory.Engine.COMPACT);
+        authenticationService = new AuthenticationService(new ProviderManager(provider), new JwtService(jwtFactory));
+        userService = new UserService(userRepository, passwordEncoder, new UserDetailsCache(false, 1, 1));
+        request = new RegisterRequestDto(BenchmarkFixtures.EMAIL, "John", "Doe", BenchmarkFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public TokenResponseDto singleHash() {
+        User user = userService.createUser(request);
+        return authenticationService.issueToken(user);
+    }
+
+    @Benchmark
+    public TokenResponseDto legacy() {
+        if (userRepository.existsByEmail(request.getEmail()) || userRepository.existsByEmail(request.getEmail())) {
+            throw new IllegalStateException("Email is already taken");
+        }
+        userRepository.save(User.builder()
+                .email(request.getEmail())
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .password(passwordEncoder.encode(request.getPassword()))
+                .admin(false)
+                .build());
+        try {
+            return authenticationService.authenticate(new LoginRequestDto(request.getEmail(), request.getPassword()));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Repository en mémoire qui garde le dernier utilisateur enregistré.
+     */
+    private UserRepository inMemoryRepository() {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "existsByEmail":
+                            return false;
+                        case "save":
+                        case "saveAndFlush":
+                            stored = (User) args[0];
+                            stored.setId(42L);
+                            return stored;
+                        case "findByEmail":
+                            return Optional.ofNullable(stored);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.openclassrooms.starterjwt.security.HmacJwtFactory;
+import com.openclassrooms.starterjwt.security.VerifiedTokenCache;
 
 
 /**
@@ -25,13 +26,36 @@ public class JwtFactoryConfig {
     @Value("${jwt.secret}")
     private String secret;
 
+    /**
+     * Engine used to sign and verify tokens: {@code nimbus} or {@code compact}.
+     */
+    @Value("${jwt.engine:nimbus}")
+    private String engine;
+
+    /**
+     * Maximum number of verified tokens kept in memory.
+     */
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    /**
+     * Creates the cache of verified tokens shared by the factory.
+     *
+     * @return a {@code VerifiedTokenCache} bounded to the configured size
+     */
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache() {
+        return new VerifiedTokenCache(cacheMaximumSize);
+    }
+
     /**
      * Creates and exposes a singleton {@link HmacJwtFactory} bean.
      *
+     * @param verifiedTokenCache the cache consulted before verifying a token
      * @return an instance of {@code HmacJwtFactory} initialized with the configured secret
      */
     @Bean
-    public HmacJwtFactory jwtFactory() {
-        return new HmacJwtFactory(secret);
+    public HmacJwtFactory jwtFactory(VerifiedTokenCache verifiedTokenCache) {
+        return new HmacJwtFactory(secret, verifiedTokenCache, HmacJwtFactory.Engine.valueOf(engine.trim().toUpperCase()));
     }
 }
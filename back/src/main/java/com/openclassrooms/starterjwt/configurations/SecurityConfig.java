@@ -11,16 +11,21 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.openclassrooms.starterjwt.controllers.SessionController;
+import com.openclassrooms.starterjwt.security.BoundedPasswordEncoder;
 import com.openclassrooms.starterjwt.security.JwtAuthenticationFilter;
+import com.openclassrooms.starterjwt.security.PasswordEncoderCalibrator;
+import com.openclassrooms.starterjwt.security.PasswordHashingExecutor;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 import com.openclassrooms.starterjwt.security.HmacJwtFactory;
@@ -79,34 +84,41 @@ public class SecurityConfig {
     }
 
     /**
-     * Provides a BCrypt password encoder bean.
+     * Provides the delegating password encoder (BCrypt, PBKDF2 or Argon2, cost calibrated
+     * at startup) whose hashing runs on the bounded password hashing executor.
      *
-     * @return a BCryptPasswordEncoder instance
+     * @param calibrator builds the delegating encoder for the configured algorithm
+     * @param passwordHashingExecutor the executor running hashing work
+     * @return the delegating encoder wrapped in a BoundedPasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderCalibrator calibrator,
+                                           PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(calibrator.createEncoder(), passwordHashingExecutor);
     }
 
     /**
      * Configures the security filter chain for HTTP requests.
      *
      * @param http the HttpSecurity object to configure
+     * @param authenticationProvider the DAO authentication provider
      * @return the configured SecurityFilterChain
      * @throws Exception if an error occurs during configuration
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http.csrf(csrf -> csrf.disable());
         http.cors();
 
         http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Fin d'une requête asynchrone (flux SSE) : la requête d'origine a déjà été autorisée.
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(AUTH_WHITELIST).permitAll()
                 .anyRequest().authenticated())
             .httpBasic(Customizer.withDefaults())
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .exceptionHandling(ex -> ex
                 .authenticationEntryPoint((request, response, authException) -> {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
@@ -118,15 +130,20 @@ public class SecurityConfig {
     }
 
     /**
-     * Provides the authentication provider using DAO and BCrypt.
+     * Provides the authentication provider using DAO and the delegating password encoder.
+     * Outdated hashes are re-encoded on successful login through the password service.
      *
+     * @param passwordEncoder the password encoder to use
+     * @param userDetailsPasswordService stores re-encoded passwords
      * @return the configured AuthenticationProvider
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                         UserDetailsPasswordService userDetailsPasswordService) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
@@ -176,6 +193,9 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(java.util.List.of("http://localhost:4200"));
         configuration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(java.util.List.of("*"));
+        // Single list of exposed headers: the security CorsFilter answers before any controller @CrossOrigin.
+        configuration.setExposedHeaders(java.util.List.of(
+            SessionController.NEXT_CURSOR_HEADER, SessionController.TOTAL_COUNT_HEADER));
         configuration.setAllowCredentials(true);
 
         org.springframework.web.cors.UrlBasedCorsConfigurationSource source =
@@ -3,15 +3,23 @@ package com.openclassrooms.starterjwt.controllers;
 import com.openclassrooms.starterjwt.dto.LoginRequestDto;
 import com.openclassrooms.starterjwt.dto.RegisterRequestDto;
 import com.openclassrooms.starterjwt.dto.TokenResponseDto;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
+import com.openclassrooms.starterjwt.exceptions.TooManyRequestsException;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.LoginThrottle;
 import com.openclassrooms.starterjwt.services.AuthenticationService;
 import com.openclassrooms.starterjwt.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -29,21 +37,28 @@ public class AuthentificationController {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationService authenticationService;
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
 
     public AuthentificationController(AuthenticationManager authenticationManager,
                                       PasswordEncoder passwordEncoder,
                                       AuthenticationService authenticationService,
-                                      UserService userService) {
+                                      UserService userService,
+                                      LoginThrottle loginThrottle) {
         this.authenticationManager = authenticationManager;
         this.passwordEncoder = passwordEncoder;
         this.authenticationService = authenticationService;
         this.userService = userService;
+        this.loginThrottle = loginThrottle;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<TokenResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public ResponseEntity<TokenResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest,
+                                                  HttpServletRequest httpRequest) {
         log.debug("Authenticating user: {}", loginRequest.getEmail());
+        String clientIp = httpRequest.getRemoteAddr();
         try {
+            loginThrottle.checkAllowed(loginRequest.getEmail(), clientIp);
+
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
             );
@@ -55,10 +70,23 @@ public class AuthentificationController {
             log.debug("User {} successfully authenticated.", loginRequest.getEmail());
             return ResponseEntity.ok(tokenResponse);
 
-        } catch (Exception e) {
+        } catch (TooManyRequestsException e) {
+            log.warn("Login rejected for {}: {}", loginRequest.getEmail(), e.getMessage());
+            return tooManyRequests(e);
+        } catch (InternalAuthenticationServiceException e) {
+            // Base d'utilisateurs injoignable : ce n'est pas un échec d'identifiants.
+            log.error("Error authenticating {}: {}", loginRequest.getEmail(), e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(new TokenResponseDto("Error during authentication", null, null, null, null, false));
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(loginRequest.getEmail(), clientIp);
             log.error("Authentication failed for {}: {}", loginRequest.getEmail(), e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new TokenResponseDto("Invalid email or password", null, null, null, null, false));
+        } catch (Exception e) {
+            log.error("Error authenticating {}: {}", loginRequest.getEmail(), e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(new TokenResponseDto("Error during authentication", null, null, null, null, false));
         }
     }
 
@@ -66,18 +94,24 @@ public class AuthentificationController {
     public ResponseEntity<TokenResponseDto> register(@Valid @RequestBody RegisterRequestDto registerRequest) {
         log.debug("Registering new user: {}", registerRequest.getEmail());
 
-        if (userService.existsByEmail(registerRequest.getEmail())) {
+        try {
+            User user = userService.createUser(registerRequest);
+            log.debug("User {} created successfully.", registerRequest.getEmail());
+
+            return ResponseEntity.ok(authenticationService.issueToken(user));
+        } catch (ConflictException e) {
             log.warn("Email {} is already taken.", registerRequest.getEmail());
             return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(new TokenResponseDto("Error: Email is already taken!", null, null, null, null, false));
+                    .body(new TokenResponseDto(e.getMessage(), null, null, null, null, false));
+        } catch (TooManyRequestsException e) {
+            log.warn("Registration rejected for {}: {}", registerRequest.getEmail(), e.getMessage());
+            return tooManyRequests(e);
         }
+    }
 
-        userService.createUser(registerRequest);
-        log.debug("User {} created successfully.", registerRequest.getEmail());
-
-        LoginRequestDto loginRequest = new LoginRequestDto(registerRequest.getEmail(), registerRequest.getPassword());
-        TokenResponseDto tokenResponse = authenticationService.authenticate(loginRequest);
-
-        return ResponseEntity.ok(tokenResponse);
+    private ResponseEntity<TokenResponseDto> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new TokenResponseDto("Too many requests, please retry later", null, null, null, null, false));
     }
 }
@@ -0,0 +1,51 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.repositorys.TableVersion;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * GET conditionnels décidés avant tout chargement d'entité, à partir d'une {@link TableVersion}.
+ *
+ * L'ETag faible combine le nombre de lignes et la date de modification la plus récente, à la
+ * microseconde. Une liste n'envoie pas de {@code Last-Modified} : une suppression ne change pas
+ * la date maximale, seul l'ETag la voit. Une ressource seule envoie les deux.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static String etag(String scope, TableVersion version) {
+        LocalDateTime lastModified = version.lastModified();
+        long micros = lastModified == null ? 0
+                : lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1_000;
+        return "W/\"" + scope + "-" + Long.toHexString(version.count()) + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    /**
+     * Vrai si le client a déjà cette version de la liste : le statut 304 est alors positionné
+     * et le contrôleur ne doit plus rien renvoyer. Sinon l'en-tête {@code ETag} est ajouté.
+     */
+    static boolean notModified(WebRequest request, String scope, TableVersion version) {
+        return request.checkNotModified(etag(scope, version));
+    }
+
+    /**
+     * Comme {@link #notModified}, avec en plus {@code Last-Modified} / {@code If-Modified-Since}.
+     * Une ressource absente ({@code count} à 0) n'est jamais « non modifiée ».
+     */
+    static boolean resourceNotModified(WebRequest request, String scope, TableVersion version) {
+        if (version.count() == 0) {
+            return false;
+        }
+        if (version.lastModified() == null) {
+            return request.checkNotModified(etag(scope, version));
+        }
+        long lastModified = version.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return request.checkNotModified(etag(scope, version), lastModified);
+    }
+}
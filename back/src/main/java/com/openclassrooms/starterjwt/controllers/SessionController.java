@@ -1,16 +1,43 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.dto.ParticipantDto;
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import com.openclassrooms.starterjwt.dto.SessionChangesDto;
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionImportResultDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.dto.WaitlistPositionDto;
+import com.openclassrooms.starterjwt.exceptions.BadRequestException;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
+import com.openclassrooms.starterjwt.exceptions.GoneException;
+import com.openclassrooms.starterjwt.exceptions.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionChange;
+import com.openclassrooms.starterjwt.repositorys.TableVersion;
 import com.openclassrooms.starterjwt.services.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.services.SessionChanges;
+import com.openclassrooms.starterjwt.services.SessionDtoCache;
+import com.openclassrooms.starterjwt.services.SessionImportService;
+import com.openclassrooms.starterjwt.services.SessionOccupancyBroadcaster;
+import com.openclassrooms.starterjwt.services.SessionPage;
+import com.openclassrooms.starterjwt.services.SessionSearch;
+import com.openclassrooms.starterjwt.services.SessionTextPage;
 import com.openclassrooms.starterjwt.services.SessionService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Contrôleur de gestion des sessions.
@@ -21,20 +48,68 @@ import java.util.List;
 @Slf4j
 public class SessionController {
 
+    /** En-têtes de pagination, exposés au front par {@code SecurityConfig#corsConfigurationSource}. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+    static final int MAX_BULK_PAIRS = 5000;
+    static final int MAX_OCCUPANCY_IDS = 50;
+    static final String TEXT_CSV_VALUE = "text/csv";
+
     private final SessionService sessionService;
     private final SessionMapper sessionMapper;
+    private final SessionImportService sessionImportService;
+    private final SessionOccupancyBroadcaster sessionOccupancyBroadcaster;
+    private final SessionDtoCache sessionDtoCache;
 
-    public SessionController(SessionService sessionService, SessionMapper sessionMapper) {
+    public SessionController(SessionService sessionService, SessionMapper sessionMapper,
+                             SessionImportService sessionImportService,
+                             SessionOccupancyBroadcaster sessionOccupancyBroadcaster,
+                             SessionDtoCache sessionDtoCache) {
         this.sessionService = sessionService;
         this.sessionMapper = sessionMapper;
+        this.sessionImportService = sessionImportService;
+        this.sessionOccupancyBroadcaster = sessionOccupancyBroadcaster;
+        this.sessionDtoCache = sessionDtoCache;
     }
 
+    /**
+     * Session complète, lue dans {@link SessionDtoCache}, ou avec {@code view=summary} son
+     * {@link SessionSummaryDto} : le nombre de participants au lieu de leurs ids, que
+     * {@link #findParticipants} liste page par page. Répond 304 si le client en a déjà la
+     * version courante ({@code If-None-Match} ou {@code If-Modified-Since}) : avec le cache, la
+     * version est celle de l'entrée, toujours à jour ; sans lui, elle est lue en base avant de
+     * charger la session.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") String id) {
-        log.debug("Fetching session with id={}", id);
+    public ResponseEntity<?> findById(@PathVariable("id") String id,
+                                      @RequestParam(value = "view", defaultValue = "full") String view,
+                                      WebRequest request) {
+        log.debug("Fetching session with id={} view={}", id, view);
+        if (!view.equals("summary") && !view.equals("full")) {
+            return ResponseEntity.badRequest().body("Invalid view");
+        }
         try {
             long sessionId = Long.parseLong(id);
-            Session session = sessionService.getById(sessionId);
+            if (view.equals("summary")) {
+                return findSummaryById(sessionId, request);
+            }
+            SessionDto session;
+            if (sessionDtoCache.isEnabled()) {
+                session = sessionDtoCache.get(sessionId, this::loadDto);
+                if (session != null && ConditionalGet.resourceNotModified(request, "session",
+                        new TableVersion(1, session.getUpdatedAt()))) {
+                    log.debug("Session with id={} not modified", id);
+                    return null;
+                }
+            } else {
+                if (ConditionalGet.resourceNotModified(request, "session", sessionService.version(sessionId))) {
+                    log.debug("Session with id={} not modified", id);
+                    return null;
+                }
+                session = loadDto(sessionId);
+            }
 
             if (session == null) {
                 log.warn("Session with id={} not found", id);
@@ -42,7 +117,7 @@ public class SessionController {
             }
 
             log.debug("Session with id={} found", id);
-            return ResponseEntity.ok(sessionMapper.toDto(session));
+            return ResponseEntity.ok(session);
 
         } catch (NumberFormatException e) {
             log.error("Invalid session id format: {}", id);
@@ -53,18 +128,246 @@ public class SessionController {
         }
     }
 
+    private SessionDto loadDto(Long id) {
+        Session session = sessionService.getById(id);
+        return session == null ? null : sessionMapper.toDto(session);
+    }
+
+    private ResponseEntity<?> findSummaryById(long id, WebRequest request) {
+        if (ConditionalGet.resourceNotModified(request, "session-summary", sessionService.version(id))) {
+            log.debug("Session summary with id={} not modified", id);
+            return null;
+        }
+        SessionSummaryDto summary = sessionService.getSummaryById(id);
+        if (summary == null) {
+            log.warn("Session with id={} not found", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Session not found");
+        }
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * Participants d'une session ({@link ParticipantDto} : id, prénom, nom), triés par id et lus
+     * en une requête par page. Le curseur de la page suivante est renvoyé dans l'en-tête
+     * {@code X-Next-Cursor}, absent sur la dernière page ; contrairement à celui des sessions, il
+     * n'est pas encodé : c'est l'id du dernier participant renvoyé. La version de la session
+     * change avec ses participants : elle sert au GET conditionnel et, à 0 ligne, au 404.
+     */
+    @GetMapping("/{id}/participants")
+    public ResponseEntity<?> findParticipants(@PathVariable("id") String id,
+                                              @RequestParam(value = "limit", required = false) Integer limit,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              WebRequest request) {
+        log.debug("Fetching participants of session id={} after cursor={} limit={}", id, cursor, limit);
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        long sessionId;
+        try {
+            sessionId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            log.error("Invalid session id format: {}", id);
+            return ResponseEntity.badRequest().body("Invalid session id format");
+        }
+        try {
+            TableVersion version = sessionService.version(sessionId);
+            if (version.count() == 0) {
+                log.warn("Session with id={} not found", id);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Session not found");
+            }
+            if (ConditionalGet.resourceNotModified(request, "session-participants", version)) {
+                log.debug("Participants of session id={} not modified", id);
+                return null;
+            }
+            int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+            SessionPage<ParticipantDto> page = sessionService.findParticipants(sessionId, cursor, pageSize);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid participant cursor: {}", cursor);
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        } catch (Exception e) {
+            log.error("Error fetching participants of session {}: {}", id, e.getMessage());
+            return ResponseEntity.internalServerError().body("Error fetching participants");
+        }
+    }
+
+    /**
+     * Liste paginée par curseur, triée par {@code (date, id)}. Le corps est un tableau de
+     * {@link com.openclassrooms.starterjwt.dto.SessionSummaryDto} (nombre de participants au lieu
+     * de leurs ids), ou de {@link SessionDto} complets avec {@code view=full}. Le curseur de la
+     * page suivante est renvoyé dans l'en-tête {@code X-Next-Cursor}, absent sur la dernière page.
+     * Un client qui a déjà la version courante de la liste ({@code If-None-Match}) reçoit un 304,
+     * sans qu'aucune page ne soit lue.
+     */
     @GetMapping
-    public ResponseEntity<?> findAll() {
-        log.debug("Fetching all sessions");
+    public ResponseEntity<?> findAll(@RequestParam(value = "limit", required = false) Integer limit,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "view", defaultValue = "summary") String view,
+                                     WebRequest request) {
+        log.debug("Fetching sessions after cursor={} limit={} view={}", cursor, limit, view);
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        if (!view.equals("summary") && !view.equals("full")) {
+            return ResponseEntity.badRequest().body("Invalid view");
+        }
         try {
-            List<Session> sessions = sessionService.findAll();
-            return ResponseEntity.ok(sessionMapper.toDto(sessions));
+            if (ConditionalGet.notModified(request, "sessions", sessionService.version())) {
+                log.debug("Sessions not modified");
+                return null;
+            }
+            int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+            SessionPage<?> page;
+            Object body;
+            if (view.equals("full")) {
+                SessionPage<Session> sessions = sessionService.findPage(cursor, pageSize);
+                page = sessions;
+                body = sessionMapper.toDto(sessions.items());
+            } else {
+                page = sessionService.findSummaryPage(cursor, pageSize);
+                body = page.items();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(body);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid session cursor: {}", cursor);
+            return ResponseEntity.badRequest().body("Invalid cursor");
         } catch (Exception e) {
             log.error("Error fetching sessions: {}", e.getMessage());
             return ResponseEntity.internalServerError().body("Error fetching sessions");
         }
     }
 
+    /**
+     * Recherche multicritère : période {@code [from, to)} (ISO-8601), professeur, texte du nom,
+     * sessions avec une place libre, sessions d'un participant. Les filtres absents sont ignorés.
+     * Réponse en {@link SessionDto} complets, paginée comme {@link #findAll} par l'en-tête
+     * {@code X-Next-Cursor}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                    @RequestParam(value = "teacherId", required = false) Long teacherId,
+                                    @RequestParam(value = "name", required = false) String name,
+                                    @RequestParam(value = "freeSpots", defaultValue = "false") boolean freeSpots,
+                                    @RequestParam(value = "participantId", required = false) Long participantId,
+                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                    @RequestParam(value = "cursor", required = false) String cursor) {
+        SessionSearch search = new SessionSearch(from, to, teacherId, name, freeSpots, participantId);
+        log.debug("Searching sessions {} after cursor={} limit={}", search, cursor, limit);
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        try {
+            int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+            SessionPage<Session> page = sessionService.search(search, cursor, pageSize);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(sessionMapper.toDto(page.items()));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid session cursor: {}", cursor);
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        } catch (Exception e) {
+            log.error("Error searching sessions: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body("Error searching sessions");
+        }
+    }
+
+    /**
+     * Recherche plein texte dans le nom et la description, par pertinence décroissante. Chaque
+     * mot de {@code q} est cherché en préfixe. Pagination par numéro de page ; le nombre total
+     * de sessions trouvées est renvoyé dans l'en-tête {@code X-Total-Count}.
+     */
+    @GetMapping("/search/text")
+    public ResponseEntity<?> textSearch(@RequestParam("q") String query,
+                                        @RequestParam(value = "page", defaultValue = "0") int page,
+                                        @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("Full-text session search q={} page={} size={}", query, page, size);
+        if (page < 0 || (size != null && size < 1)) {
+            return ResponseEntity.badRequest().body("Invalid page or size");
+        }
+        try {
+            int pageSize = size == null ? DEFAULT_LIMIT : Math.min(size, MAX_LIMIT);
+            SessionTextPage result = sessionService.textSearch(query, page, pageSize);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT_HEADER, String.valueOf(result.total()))
+                    .body(sessionMapper.toDto(result.items()));
+        } catch (ArithmeticException e) {
+            return ResponseEntity.badRequest().body("Invalid page or size");
+        } catch (Exception e) {
+            log.error("Error in full-text session search: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body("Error searching sessions");
+        }
+    }
+
+    /**
+     * Synchronisation incrémentale : les sessions créées, modifiées ou supprimées et les
+     * inscriptions depuis {@code since} (ISO-8601). Le client repasse le champ {@code until} de
+     * la réponse en {@code since} à l'appel suivant. Une date antérieure à la période de
+     * rétention du journal reçoit un 410 : le client doit alors relire tout le planning.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> changes(@RequestParam("since") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        log.debug("Fetching session changes since {}", since);
+        try {
+            SessionChanges changes = sessionService.changesSince(since);
+            return ResponseEntity.ok(new SessionChangesDto(
+                    changes.until(),
+                    sessionMapper.toDto(changes.sessions()),
+                    changes.deleted(),
+                    changes.participations().stream()
+                            .map(change -> new SessionChangesDto.ParticipationChange(change.getSessionId(),
+                                    change.getUserId(), change.getType() == SessionChange.Type.JOINED))
+                            .toList()));
+        } catch (GoneException e) {
+            log.debug("Session changes since {} no longer available", since);
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching session changes: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body("Error fetching session changes");
+        }
+    }
+
+    /**
+     * Flux Server-Sent Events des places prises des sessions {@code ids} : un événement
+     * {@code occupancy} par session à l'ouverture, puis à chaque inscription ou désinscription.
+     * Remplace l'interrogation répétée de {@code GET /api/session/{id}}. Le type de retour doit
+     * nommer {@link SseEmitter} pour que la requête passe en mode asynchrone : les erreurs sont
+     * donc renvoyées sans corps.
+     */
+    @GetMapping(value = "/occupancy", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> occupancy(@RequestParam("ids") List<Long> ids) {
+        log.debug("Subscribing to occupancy of sessions {}", ids);
+        if (ids.isEmpty() || ids.size() > MAX_OCCUPANCY_IDS || ids.stream().anyMatch(Objects::isNull)) {
+            log.error("Invalid occupancy subscription size: {}", ids.size());
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(sessionOccupancyBroadcaster.subscribe(ids));
+        } catch (NotFoundException e) {
+            log.warn("No session found among {}", ids);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            log.warn("Occupancy subscription refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error subscribing to session occupancy: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> create(@Valid @RequestBody SessionDto sessionDto) {
         log.debug("Creating new session: {}", sessionDto);
@@ -72,12 +375,39 @@ public class SessionController {
             Session createdSession = sessionService.create(sessionMapper.toEntity(sessionDto));
             log.debug("Session created successfully with id={}", createdSession.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(sessionMapper.toDto(createdSession));
+        } catch (ConflictException e) {
+            log.debug("Session not created: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             log.error("Error creating session: {}", e.getMessage());
             return ResponseEntity.internalServerError().body("Error creating session");
         }
     }
 
+    /**
+     * Import d'un planning, en CSV ou en tableau JSON selon le {@code Content-Type}. Le corps
+     * est lu en flux ; la réponse donne le nombre de sessions créées et la cause de chaque
+     * ligne rejetée. Un fichier mal formé (en-tête, guillemets, JSON) est refusé en entier.
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importSessions(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        log.debug("Importing sessions from a {} file", contentType);
+        try {
+            SessionImportResultDto result = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)
+                    ? sessionImportService.importJson(body)
+                    : sessionImportService.importCsv(body);
+            log.debug("Imported {} sessions, rejected {} rows", result.getImported(), result.getRejected());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid session import file: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing sessions: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body("Error importing sessions");
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable("id") String id, @Valid @RequestBody SessionDto sessionDto) {
         log.debug("Updating session id={} with data={}", id, sessionDto);
@@ -96,6 +426,9 @@ public class SessionController {
         } catch (NumberFormatException e) {
             log.error("Invalid session id format: {}", id);
             return ResponseEntity.badRequest().body("Invalid session id format");
+        } catch (ConflictException e) {
+            log.debug("Session {} not updated: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             log.error("Error updating session {}: {}", id, e.getMessage());
             return ResponseEntity.internalServerError().body("Error updating session");
@@ -137,12 +470,30 @@ public class SessionController {
         } catch (NumberFormatException e) {
             log.error("Invalid id or userId format: {}, {}", id, userId);
             return ResponseEntity.badRequest().body("Invalid id format");
+        } catch (ConflictException e) {
+            log.debug("Session {} is full, user {} not added", id, userId);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             log.error("Error while user {} participates in session {}: {}", userId, id, e.getMessage());
             return ResponseEntity.internalServerError().body("Error adding participant");
         }
     }
 
+    @PostMapping("/participate")
+    public ResponseEntity<?> participateAll(@RequestBody List<ParticipationRequestDto> pairs) {
+        if (pairs == null || pairs.isEmpty() || pairs.size() > MAX_BULK_PAIRS) {
+            log.error("Invalid bulk participation size: {}", pairs == null ? null : pairs.size());
+            return ResponseEntity.badRequest().body("Between 1 and " + MAX_BULK_PAIRS + " participations expected");
+        }
+        log.debug("Bulk participation of {} pairs", pairs.size());
+        try {
+            return ResponseEntity.ok(sessionService.participateAll(pairs));
+        } catch (Exception e) {
+            log.error("Error during bulk participation: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body("Error adding participants");
+        }
+    }
+
     @DeleteMapping("/{id}/participate/{userId}")
     public ResponseEntity<?> noLongerParticipate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
         log.debug("User {} cancels participation in session {}", userId, id);
@@ -158,4 +509,61 @@ public class SessionController {
             return ResponseEntity.internalServerError().body("Error removing participant");
         }
     }
+
+    @PostMapping("/{id}/waitlist/{userId}")
+    public ResponseEntity<?> joinWaitlist(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+        log.debug("User {} joins the waitlist of session {}", userId, id);
+        try {
+            long sessionId = Long.parseLong(id);
+            long user = Long.parseLong(userId);
+            long position = sessionService.joinWaitlist(sessionId, user);
+            log.debug("User {} is at position {} for session {}", userId, position, id);
+            return ResponseEntity.ok(new WaitlistPositionDto(sessionId, user, position == 0, position));
+        } catch (NumberFormatException e) {
+            log.error("Invalid id or userId format: {}, {}", id, userId);
+            return ResponseEntity.badRequest().body("Invalid id format");
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Session or user not found");
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body("User already participates");
+        } catch (Exception e) {
+            log.error("Error while user {} joins the waitlist of session {}: {}", userId, id, e.getMessage());
+            return ResponseEntity.internalServerError().body("Error joining waitlist");
+        }
+    }
+
+    @GetMapping("/{id}/waitlist/{userId}")
+    public ResponseEntity<?> waitlistPosition(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+        try {
+            long sessionId = Long.parseLong(id);
+            long user = Long.parseLong(userId);
+            long position = sessionService.waitlistPosition(sessionId, user);
+            return ResponseEntity.ok(new WaitlistPositionDto(sessionId, user, false, position));
+        } catch (NumberFormatException e) {
+            log.error("Invalid id or userId format: {}, {}", id, userId);
+            return ResponseEntity.badRequest().body("Invalid id format");
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User is not on the waitlist");
+        } catch (Exception e) {
+            log.error("Error reading waitlist position of user {} for session {}: {}", userId, id, e.getMessage());
+            return ResponseEntity.internalServerError().body("Error reading waitlist position");
+        }
+    }
+
+    @DeleteMapping("/{id}/waitlist/{userId}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+        log.debug("User {} leaves the waitlist of session {}", userId, id);
+        try {
+            sessionService.leaveWaitlist(Long.parseLong(id), Long.parseLong(userId));
+            return ResponseEntity.ok().build();
+        } catch (NumberFormatException e) {
+            log.error("Invalid id or userId format: {}, {}", id, userId);
+            return ResponseEntity.badRequest().body("Invalid id format");
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User is not on the waitlist");
+        } catch (Exception e) {
+            log.error("Error while user {} leaves the waitlist of session {}: {}", userId, id, e.getMessage());
+            return ResponseEntity.internalServerError().body("Error leaving waitlist");
+        }
+    }
 }
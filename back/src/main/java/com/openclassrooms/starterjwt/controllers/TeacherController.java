@@ -5,6 +5,8 @@ import com.openclassrooms.starterjwt.services.mapper.TeacherMapper;
 import com.openclassrooms.starterjwt.services.TeacherService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -39,8 +41,14 @@ public class TeacherController {
         }
     }
 
+    /**
+     * Répond 304 sans charger les professeurs si le client a déjà la version courante de la liste.
+     */
     @GetMapping()
-    public ResponseEntity<?> findAll() {
+    public ResponseEntity<?> findAll(WebRequest request) {
+        if (ConditionalGet.notModified(request, "teachers", this.teacherService.version())) {
+            return null;
+        }
         List<Teacher> teachers = this.teacherService.findAll();
 
         return ResponseEntity.ok().body(this.teacherMapper.toDto(teachers));
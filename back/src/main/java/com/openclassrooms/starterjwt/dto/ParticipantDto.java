@@ -0,0 +1,21 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne de la liste des participants d'une session : identité seule, sans email ni droits.
+ * Construite ligne à ligne par la requête JDBC de
+ * {@link com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository#findParticipants}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantDto {
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+}
@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Couple (session, utilisateur) d'une inscription en masse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipationRequestDto {
+    private Long sessionId;
+
+    private Long userId;
+}
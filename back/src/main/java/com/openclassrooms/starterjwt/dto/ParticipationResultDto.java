@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'un couple d'une inscription en masse, dans l'ordre de la requête.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipationResultDto {
+
+    public enum Outcome {
+        ADDED,
+        DUPLICATE,
+        NOT_FOUND,
+        FULL
+    }
+
+    private Long sessionId;
+
+    private Long userId;
+
+    private Outcome outcome;
+}
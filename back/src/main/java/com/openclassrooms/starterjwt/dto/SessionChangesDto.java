@@ -0,0 +1,38 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Réponse de la synchronisation incrémentale. Les sessions de {@code sessions} portent déjà
+ * leurs participants : {@code participations} ne concerne que les sessions absentes des deux
+ * premières listes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionChangesDto {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ParticipationChange {
+        private Long sessionId;
+
+        private Long userId;
+
+        private boolean participating;
+    }
+
+    private LocalDateTime until;
+
+    private List<SessionDto> sessions;
+
+    private List<Long> deleted;
+
+    private List<ParticipationChange> participations;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -33,6 +34,11 @@ public class SessionDto {
 
     private List<Long> users;
 
+    @Min(1)
+    private Integer capacity;
+
+    private int booked;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
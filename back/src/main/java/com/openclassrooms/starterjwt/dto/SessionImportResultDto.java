@@ -0,0 +1,33 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import de sessions : lignes insérées, lignes rejetées et cause des premiers
+ * rejets ({@code session.import.max-errors}). Les lignes sont numérotées à partir de 1, sans
+ * compter l'en-tête CSV.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionImportResultDto {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+
+        private String message;
+    }
+
+    private int imported;
+
+    private int rejected;
+
+    private List<RowError> errors;
+}
@@ -0,0 +1,20 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Places prises d'une session, poussées aux abonnés du flux d'occupation ; {@code capacity}
+ * vaut {@code null} pour une session sans limite.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionOccupancyDto {
+    private Long sessionId;
+
+    private int booked;
+
+    private Integer capacity;
+}
@@ -0,0 +1,28 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des sessions : le nombre de participants remplace la liste de leurs ids.
+ * Construite directement par la requête JPQL de {@code SessionRepository}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSummaryDto {
+    private Long id;
+
+    private String name;
+
+    private LocalDateTime date;
+
+    private String description;
+
+    private Long teacher_id;
+
+    private Integer participantCount;
+}
@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Situation d'un utilisateur vis-à-vis d'une session complète : inscrit ({@code participating},
+ * rang 0) ou en attente au rang {@code position}, à partir de 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPositionDto {
+    private Long sessionId;
+
+    private Long userId;
+
+    private boolean participating;
+
+    private long position;
+}
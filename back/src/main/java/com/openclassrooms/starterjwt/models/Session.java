@@ -3,20 +3,24 @@ package com.openclassrooms.starterjwt.models;
 
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.Date;
-import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_date_id", columnList = "date, id"),
+        @Index(name = "idx_sessions_teacher_date_id", columnList = "teacher_id, date, id")})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Accessors(chain = true)
@@ -41,16 +45,48 @@ public class Session {
     @Size(max = 2500)
     private String description;
 
-    @OneToOne
+    /**
+     * Un professeur anime plusieurs sessions : pas de contrainte d'unicité sur {@code teacher_id}.
+     */
+    @ManyToOne
     @JoinColumn(name = "teacher_id", referencedColumnName = "id")
     private Teacher teacher;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    /**
+     * Participants, chargés à la demande : les listes de sessions n'en ont pas besoin.
+     * Quand plusieurs sessions du contexte de persistance les réclament, Hibernate les lit
+     * par lots de 50 en une requête {@code IN}. Un {@code Set} permet d'ajouter ou de retirer
+     * une ligne de {@code participate} sans réécrire toutes celles de la session.
+     * Les lectures qui ont besoin des participants passent par
+     * {@link com.openclassrooms.starterjwt.repositorys.SessionRepository#findWithUsersById} ;
+     * les inscriptions écrivent directement dans {@code participate}, dont la clé
+     * {@code (session_id, user_id)} est unique. L'index {@code (user_id, session_id)} sert le
+     * chemin inverse : les sessions d'un utilisateur.
+     */
+    @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "participate",
             joinColumns = @JoinColumn( name = "session_id" ),
-            inverseJoinColumns = @JoinColumn( name = "user_id" ) )
-    private List<User> users;
+            inverseJoinColumns = @JoinColumn( name = "user_id" ),
+            uniqueConstraints = @UniqueConstraint(name = "uk_participate_session_user", columnNames = {"session_id", "user_id"}),
+            indexes = @Index(name = "idx_participate_user_session", columnList = "user_id, session_id") )
+    @ToString.Exclude
+    private Set<User> users;
+
+    /**
+     * Nombre maximal de participants ; {@code null} pour une session sans limite.
+     */
+    @Min(1)
+    private Integer capacity;
+
+    /**
+     * Places prises. Les inscriptions le font évoluer par une mise à jour conditionnelle en
+     * base ({@link com.openclassrooms.starterjwt.repositorys.SessionRepository#reserveSeat}),
+     * jamais par lecture puis écriture.
+     */
+    @Column(nullable = false)
+    private int booked;
 
     @CreatedDate
     @Column(name = "created_at", updatable = false)
@@ -0,0 +1,58 @@
+package com.openclassrooms.starterjwt.models;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entrée du journal des modifications de sessions, lu par la synchronisation incrémentale.
+ *
+ * Pas de clé étrangère vers {@code sessions} : l'entrée {@link Type#DELETED} d'une session
+ * supprimée (sa « pierre tombale ») doit lui survivre. Les entrées sont lues et compactées
+ * par date, sur l'index {@code (changed_at, id)}.
+ */
+@Entity
+@Table(name = "session_changes",
+        indexes = @Index(name = "idx_session_changes_changed_at_id", columnList = "changed_at, id"))
+@Data
+@Accessors(chain = true)
+@EqualsAndHashCode(of = {"id"})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SessionChange {
+
+    public enum Type {
+        /** Session créée ou modifiée. */
+        SAVED,
+        /** Session supprimée. */
+        DELETED,
+        /** {@code userId} inscrit à la session. */
+        JOINED,
+        /** {@code userId} désinscrit de la session. */
+        LEFT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    /**
+     * Participant concerné, pour {@link Type#JOINED} et {@link Type#LEFT} seulement.
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,141 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.dto.ParticipantDto;
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accès JDBC à {@code participate} pour les inscriptions en masse : lectures ensemblistes
+ * ({@code IN}) et écritures par lots, sans passer par les entités.
+ *
+ * Les méthodes doivent être appelées dans une transaction ; elles partagent alors la
+ * connexion de l'{@code EntityManager}. Avec MySQL, {@code rewriteBatchedStatements=true}
+ * dans l'URL JDBC regroupe chaque lot en une seule instruction.
+ */
+@Repository
+public class ParticipationJdbcRepository {
+
+    /**
+     * Places d'une session : {@code capacity} vaut {@code null} pour une session sans limite.
+     */
+    public record Seats(Integer capacity, int booked) {
+
+        public int remaining() {
+            return capacity == null ? Integer.MAX_VALUE : Math.max(capacity - booked, 0);
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ParticipationJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                       @Value("${session.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Places des sessions existantes parmi {@code sessionIds}, lignes verrouillées jusqu'à la fin
+     * de la transaction dans l'ordre des ids : les inscriptions unitaires, qui commencent par
+     * mettre à jour la ligne de la session, attendent la fin du lot.
+     */
+    public Map<Long, Seats> lockSeats(Collection<Long> sessionIds) {
+        Map<Long, Seats> seats = new HashMap<>();
+        jdbcTemplate.query("select id, capacity, booked from sessions where id in (:ids) order by id for update",
+                new MapSqlParameterSource("ids", sessionIds),
+                rs -> {
+                    int capacity = rs.getInt("capacity");
+                    seats.put(rs.getLong("id"), new Seats(rs.wasNull() ? null : capacity, rs.getInt("booked")));
+                });
+        return seats;
+    }
+
+    /**
+     * Places des sessions existantes parmi {@code sessionIds}, sans verrou.
+     */
+    public Map<Long, Seats> findSeats(Collection<Long> sessionIds) {
+        Map<Long, Seats> seats = new HashMap<>();
+        jdbcTemplate.query("select id, capacity, booked from sessions where id in (:ids)",
+                new MapSqlParameterSource("ids", sessionIds),
+                rs -> {
+                    int capacity = rs.getInt("capacity");
+                    seats.put(rs.getLong("id"), new Seats(rs.wasNull() ? null : capacity, rs.getInt("booked")));
+                });
+        return seats;
+    }
+
+    /**
+     * Au plus {@code limit} participants de la session d'id supérieur à {@code afterUserId},
+     * triés par id : une jointure {@code participate} / {@code users} dont les deux conditions
+     * portent sur la clé unique {@code (session_id, user_id)}, parcourue sans OFFSET ni tri.
+     */
+    public List<ParticipantDto> findParticipants(Long sessionId, long afterUserId, int limit) {
+        return jdbcTemplate.query("select u.id, u.first_name, u.last_name from participate p "
+                        + "join users u on u.id = p.user_id "
+                        + "where p.session_id = :sessionId and p.user_id > :after order by p.user_id limit :limit",
+                new MapSqlParameterSource()
+                        .addValue("sessionId", sessionId)
+                        .addValue("after", afterUserId)
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new ParticipantDto(rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name")));
+    }
+
+    public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+        return new HashSet<>(jdbcTemplate.queryForList("select id from users where id in (:ids)",
+                new MapSqlParameterSource("ids", userIds), Long.class));
+    }
+
+    /**
+     * Inscriptions existantes parmi le produit {@code sessionIds × userIds}.
+     */
+    public Set<ParticipationRequestDto> findExistingPairs(Collection<Long> sessionIds, Collection<Long> userIds) {
+        Set<ParticipationRequestDto> pairs = new HashSet<>();
+        jdbcTemplate.query("select session_id, user_id from participate where session_id in (:sessionIds) and user_id in (:userIds)",
+                new MapSqlParameterSource().addValue("sessionIds", sessionIds).addValue("userIds", userIds),
+                rs -> {
+                    pairs.add(new ParticipationRequestDto(rs.getLong("session_id"), rs.getLong("user_id")));
+                });
+        return pairs;
+    }
+
+    /**
+     * Insère les inscriptions par lots de {@code session.bulk.batch-size}.
+     */
+    public void insertAll(List<ParticipationRequestDto> pairs) {
+        for (int from = 0; from < pairs.size(); from += batchSize) {
+            List<ParticipationRequestDto> chunk = pairs.subList(from, Math.min(from + batchSize, pairs.size()));
+            jdbcTemplate.batchUpdate("insert into participate (session_id, user_id) values (:sessionId, :userId)",
+                    chunk.stream()
+                            .map(pair -> new MapSqlParameterSource()
+                                    .addValue("sessionId", pair.getSessionId())
+                                    .addValue("userId", pair.getUserId()))
+                            .toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    /**
+     * Ajoute {@code added} places prises à chaque session, en un lot, et met à jour leur date
+     * de modification.
+     */
+    public void addBooked(Map<Long, Integer> added) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("update sessions set booked = booked + :added, updated_at = :now where id = :id",
+                added.entrySet().stream()
+                        .map(entry -> new MapSqlParameterSource()
+                                .addValue("id", entry.getKey())
+                                .addValue("added", entry.getValue())
+                                .addValue("now", now))
+                        .toArray(MapSqlParameterSource[]::new));
+    }
+}
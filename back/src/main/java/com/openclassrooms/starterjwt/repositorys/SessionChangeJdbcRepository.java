@@ -0,0 +1,34 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.models.SessionChange;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Écritures JDBC dans {@code session_changes} : une entrée ou un lot entier par instruction
+ * préparée, sans passer par les entités ni relire les ids générés.
+ */
+@Repository
+public class SessionChangeJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SessionChangeJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<SessionChange> changes) {
+        jdbcTemplate.batchUpdate("insert into session_changes (session_id, user_id, type, changed_at) "
+                        + "values (:sessionId, :userId, :type, :changedAt)",
+                changes.stream()
+                        .map(change -> new MapSqlParameterSource()
+                                .addValue("sessionId", change.getSessionId())
+                                .addValue("userId", change.getUserId())
+                                .addValue("type", change.getType().name())
+                                .addValue("changedAt", change.getChangedAt()))
+                        .toArray(MapSqlParameterSource[]::new));
+    }
+}
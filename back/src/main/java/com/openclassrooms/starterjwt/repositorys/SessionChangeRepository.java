@@ -0,0 +1,31 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.models.SessionChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SessionChangeRepository extends JpaRepository<SessionChange, Long> {
+
+    /**
+     * Entrées écrites depuis {@code since} inclus, dans l'ordre d'écriture, lues sur l'index
+     * {@code (changed_at, id)}.
+     */
+    @Query("select c from SessionChange c where c.changedAt >= :since order by c.id")
+    List<SessionChange> findSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Supprime les entrées antérieures à {@code before}, en une instruction.
+     *
+     * @return le nombre d'entrées supprimées
+     */
+    @Modifying
+    @Query("delete from SessionChange c where c.changedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
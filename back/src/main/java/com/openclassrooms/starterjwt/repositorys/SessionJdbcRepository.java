@@ -0,0 +1,69 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.models.Session;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accès JDBC à {@code sessions} pour les traitements en masse.
+ *
+ * Les insertions de l'import passent par une seule instruction préparée, exécutée pour
+ * toutes les lignes du lot ; les ids générés sont relus avec le lot. Les dates de création
+ * et de modification sont écrites ici, les écouteurs JPA n'étant pas appelés.
+ */
+@Repository
+public class SessionJdbcRepository {
+
+    /**
+     * Reçoit le texte d'une session, ligne par ligne.
+     */
+    @FunctionalInterface
+    public interface TextConsumer {
+        void accept(long id, String name, String description);
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SessionJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insère {@code sessions} en un lot, sans participants.
+     *
+     * @return les ids générés, dans l'ordre de {@code sessions}
+     */
+    public List<Long> insertAll(List<Session> sessions) {
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate("insert into sessions (name, date, description, teacher_id, capacity, booked, created_at, updated_at) "
+                        + "values (:name, :date, :description, :teacherId, :capacity, 0, :now, :now)",
+                sessions.stream()
+                        .map(session -> new MapSqlParameterSource()
+                                .addValue("name", session.getName())
+                                .addValue("date", session.getDate())
+                                .addValue("description", session.getDescription())
+                                .addValue("teacherId", session.getTeacher() == null ? null : session.getTeacher().getId())
+                                .addValue("capacity", session.getCapacity())
+                                .addValue("now", now))
+                        .toArray(MapSqlParameterSource[]::new),
+                keys, new String[]{"id"});
+        return keys.getKeyList().stream().map(row -> ((Number) row.values().iterator().next()).longValue()).toList();
+    }
+
+    /**
+     * Parcourt le nom et la description de toutes les sessions, sans charger d'entité ni
+     * garder le résultat en mémoire.
+     */
+    public void forEachText(TextConsumer consumer) {
+        jdbcTemplate.query("select id, name, description from sessions", rs -> {
+            consumer.accept(rs.getLong("id"), rs.getString("name"), rs.getString("description"));
+        });
+    }
+}
@@ -1,9 +1,176 @@
 package com.openclassrooms.starterjwt.repositorys;
 
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.models.Session;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface SessionRepository  extends JpaRepository<Session, Long> {
+public interface SessionRepository  extends JpaRepository<Session, Long>, JpaSpecificationExecutor<Session> {
+
+    /**
+     * Session avec ses participants et son professeur, en une seule requête : à utiliser
+     * quand la liste des participants est lue ou modifiée. Requête JPQL plutôt que
+     * {@code @EntityGraph} sur une requête dérivée, pour que Hibernate garde son plan en cache.
+     */
+    @Query("select s from Session s left join fetch s.users left join fetch s.teacher where s.id = :id")
+    Optional<Session> findWithUsersById(@Param("id") Long id);
+
+    /**
+     * Inscrit un utilisateur à une session en une instruction, sans charger la liste des
+     * participants. N'insère rien si la session ou l'utilisateur n'existe pas, ou si
+     * l'inscription existe déjà ; deux inscriptions simultanées sont départagées par la clé
+     * unique {@code uk_participate_session_user}.
+     *
+     * @return 1 si l'inscription a été créée, 0 sinon
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into participate (session_id, user_id) "
+            + "select s.id, u.id from sessions s, users u where s.id = :sessionId and u.id = :userId "
+            + "and not exists (select 1 from participate p where p.session_id = s.id and p.user_id = u.id)",
+            nativeQuery = true)
+    int addParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    /**
+     * Réserve une place si la session en a encore une : la condition et l'incrément sont
+     * évalués par la même instruction, sur la ligne verrouillée, si bien que des inscriptions
+     * simultanées ne peuvent pas dépasser {@code capacity}. La date de modification suit, pour
+     * que la {@link TableVersion} de la session change avec ses participants ; elle est prise
+     * sur l'horloge de l'application, comme celle de {@code @UpdateTimestamp}.
+     *
+     * @return 1 si une place a été réservée, 0 si la session est complète ou n'existe pas
+     */
+    default int reserveSeat(Long id) {
+        return reserveSeat(id, LocalDateTime.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Session s set s.booked = s.booked + 1, s.updatedAt = :now "
+            + "where s.id = :id and (s.capacity is null or s.booked < s.capacity)")
+    int reserveSeat(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Libère une place réservée par {@link #reserveSeat}. Le compteur ne descend pas sous 0,
+     * mais la date de modification avance dans tous les cas : la version de la session suit
+     * ses participants même si {@code booked} a dérivé.
+     */
+    default int releaseSeat(Long id) {
+        return releaseSeat(id, LocalDateTime.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Session s set s.booked = case when s.booked > 0 then s.booked - 1 else 0 end, "
+            + "s.updatedAt = :now where s.id = :id")
+    int releaseSeat(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Recalcule {@code booked} depuis les lignes de {@code participate}, après le
+     * remplacement de la liste des participants par une mise à jour de la session.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update sessions set booked = (select count(*) from participate p where p.session_id = :id) "
+            + "where id = :id", nativeQuery = true)
+    int recountBooked(@Param("id") Long id);
+
+    /**
+     * Recalcule {@code booked} depuis {@code participate} pour toutes les sessions dont le
+     * compteur a dérivé, par exemple celles qui avaient des participants avant l'ajout de la
+     * colonne (créée à 0 par {@code ddl-auto=update}). La date de modification des sessions
+     * corrigées avance, pour invalider les versions déjà servies.
+     *
+     * @return le nombre de sessions corrigées
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update sessions set booked = (select count(*) from participate p where p.session_id = sessions.id), "
+            + "updated_at = :now "
+            + "where booked <> (select count(*) from participate p where p.session_id = sessions.id)",
+            nativeQuery = true)
+    int recountAllBooked(@Param("now") LocalDateTime now);
+
+    /**
+     * Session verrouillée en écriture jusqu'à la fin de la transaction : sérialise l'entrée
+     * en liste d'attente avec les désinscriptions qui en font sortir la tête.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Session s where s.id = :id")
+    Optional<Session> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * Vrai si l'utilisateur participe à la session.
+     */
+    boolean existsByIdAndUsersId(Long id, Long userId);
+
+    /**
+     * Désinscrit un utilisateur d'une session en une instruction.
+     *
+     * @return 1 si l'inscription a été supprimée, 0 si elle n'existait pas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from participate where session_id = :sessionId and user_id = :userId", nativeQuery = true)
+    int removeParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    /**
+     * Version de la table {@code sessions}, pour les GET conditionnels de la liste.
+     */
+    @Query("select new com.openclassrooms.starterjwt.repositorys.TableVersion(count(s), max(s.updatedAt)) from Session s")
+    TableVersion findVersion();
+
+    /**
+     * Version d'une session ; {@code count} vaut 0 si elle n'existe pas.
+     */
+    @Query("select new com.openclassrooms.starterjwt.repositorys.TableVersion(count(s), max(s.updatedAt)) "
+            + "from Session s where s.id = :id")
+    TableVersion findVersionById(@Param("id") Long id);
+
+    /**
+     * Première page de la liste triée par {@code (date, id)}.
+     */
+    @Query("select s from Session s order by s.date asc, s.id asc")
+    List<Session> findFirstPage(Limit limit);
+
+    /**
+     * Page suivant la session {@code (date, id)} : pagination par clé, sans OFFSET, servie
+     * par l'index {@code idx_sessions_date_id} quelle que soit la profondeur.
+     */
+    @Query("select s from Session s where s.date > :date or (s.date = :date and s.id > :id) "
+            + "order by s.date asc, s.id asc")
+    List<Session> findPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    /**
+     * Équivalent de {@link #findFirstPage} en lignes de résumé, en une seule requête SQL :
+     * l'id du professeur est lu sur la clé étrangère et {@code size(s.users)} devient une
+     * sous-requête {@code count} sur {@code participate}, sans charger les participants.
+     */
+    @Query("select new com.openclassrooms.starterjwt.dto.SessionSummaryDto("
+            + "s.id, s.name, s.date, s.description, s.teacher.id, size(s.users)) "
+            + "from Session s order by s.date asc, s.id asc")
+    List<SessionSummaryDto> findFirstSummaryPage(Limit limit);
+
+    /**
+     * Équivalent de {@link #findPageAfter} en lignes de résumé.
+     */
+    @Query("select new com.openclassrooms.starterjwt.dto.SessionSummaryDto("
+            + "s.id, s.name, s.date, s.description, s.teacher.id, size(s.users)) "
+            + "from Session s where s.date > :date or (s.date = :date and s.id > :id) "
+            + "order by s.date asc, s.id asc")
+    List<SessionSummaryDto> findSummaryPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    /**
+     * Résumé d'une session, avec le nombre de participants au lieu de leurs ids.
+     */
+    @Query("select new com.openclassrooms.starterjwt.dto.SessionSummaryDto("
+            + "s.id, s.name, s.date, s.description, s.teacher.id, size(s.users)) "
+            + "from Session s where s.id = :id")
+    Optional<SessionSummaryDto> findSummaryById(@Param("id") Long id);
 }
@@ -0,0 +1,11 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version d'un ensemble de lignes, lue par une seule requête d'agrégat : nombre de lignes et
+ * plus récente date de modification ({@code null} si aucune n'en a). Toute création,
+ * modification ou suppression en change au moins une des deux valeurs.
+ */
+public record TableVersion(long count, LocalDateTime lastModified) {
+}
@@ -2,8 +2,23 @@ package com.openclassrooms.starterjwt.repositorys;
 
 import com.openclassrooms.starterjwt.models.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Set;
+
 @Repository
 public interface TeacherRepository  extends JpaRepository<Teacher, Long> {
+
+    /**
+     * Ids de tous les professeurs, lus sur la clé primaire sans charger les entités.
+     */
+    @Query("select t.id from Teacher t")
+    Set<Long> findAllIds();
+
+    /**
+     * Version de la table {@code teachers}, pour les GET conditionnels de la liste.
+     */
+    @Query("select new com.openclassrooms.starterjwt.repositorys.TableVersion(count(t), max(t.updatedAt)) from Teacher t")
+    TableVersion findVersion();
 }
@@ -1,7 +1,12 @@
 package com.openclassrooms.starterjwt.repositorys;
 
 import com.openclassrooms.starterjwt.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,6 +22,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * {@link #existsByEmail} sans vidage préalable de la session : utilisable juste après
+     * l'échec d'une insertion, quand l'entité refusée y est encore attachée.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select count(u) > 0 from User u where u.email = :email")
+    boolean existsByEmailWithoutFlush(@Param("email") String email);
+
     /**
      * Recherche un utilisateur par email.
      */
@@ -0,0 +1,48 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Tête de la file d'une session : premier élément de l'index {@code (session_id, id)}.
+     */
+    Optional<WaitlistEntry> findFirstBySessionIdOrderByIdAsc(Long sessionId);
+
+    /**
+     * Vrai si quelqu'un attend une place pour la session, lu sur l'index {@code (session_id, id)}.
+     */
+    boolean existsBySessionId(Long sessionId);
+
+    /**
+     * Place d'un utilisateur, par la clé unique {@code (session_id, user_id)}.
+     */
+    Optional<WaitlistEntry> findBySessionIdAndUserId(Long sessionId, Long userId);
+
+    /**
+     * Rang (à partir de 1) d'un utilisateur dans la file, 0 s'il n'y est pas : l'entrée est
+     * trouvée par la clé unique, puis les entrées arrivées avant elle sont comptées sur
+     * l'index {@code (session_id, id)}.
+     */
+    @Query("select count(w) from WaitlistEntry w, WaitlistEntry me "
+            + "where me.session.id = :sessionId and me.user.id = :userId "
+            + "and w.session.id = :sessionId and w.id <= me.id")
+    long positionOf(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    /**
+     * Retire une entrée de la file.
+     *
+     * @return 1 si l'entrée a été retirée, 0 si elle n'existait plus
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WaitlistEntry w where w.id = :id")
+    int removeEntry(@Param("id") Long id);
+}
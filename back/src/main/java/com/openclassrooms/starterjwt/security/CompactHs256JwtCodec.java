@@ -0,0 +1,424 @@
+package com.openclassrooms.starterjwt.security;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HS256 encoder and decoder working directly on byte arrays.
+ *
+ * It replaces the Nimbus round trip (JWK selection, generic JSON parsing, intermediate Base64 strings)
+ * with a thread-local {@link Mac}, Base64URL handling on byte arrays and a parser limited to flat
+ * JSON objects, which is all the claim set issued by {@link HmacJwtFactory} needs. Tokens are
+ * wire-compatible with the Nimbus encoder and decoder in both directions.
+ *
+ * Like the default Nimbus decoder, {@code exp} and {@code nbf} are validated with a 60 second clock skew.
+ */
+public class CompactHs256JwtCodec implements JwtEncoder, JwtDecoder {
+
+    private static final String ALGORITHM = "HS256";
+    private static final Map<String, Object> HEADER = Map.of("alg", ALGORITHM);
+    private static final byte[] HEADER_SEGMENT = Base64.getUrlEncoder().withoutPadding()
+            .encode("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final int SIGNATURE_SEGMENT_LENGTH = 43;
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> mac;
+
+    public CompactHs256JwtCodec(SecretKey secretKey) {
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(secretKey);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        if (parameters.getJwsHeader() != null
+                && !ALGORITHM.equals(parameters.getJwsHeader().getAlgorithm().getName())) {
+            throw new JwtEncodingException("Unsupported algorithm: " + parameters.getJwsHeader().getAlgorithm());
+        }
+        Map<String, Object> claims = parameters.getClaims().getClaims();
+        byte[] payload = BASE64_URL_ENCODER.encode(writeJson(claims).getBytes(StandardCharsets.UTF_8));
+
+        int signingInputLength = HEADER_SEGMENT.length + 1 + payload.length;
+        byte[] token = new byte[signingInputLength + 1 + SIGNATURE_SEGMENT_LENGTH];
+        System.arraycopy(HEADER_SEGMENT, 0, token, 0, HEADER_SEGMENT.length);
+        token[HEADER_SEGMENT.length] = '.';
+        System.arraycopy(payload, 0, token, HEADER_SEGMENT.length + 1, payload.length);
+        token[signingInputLength] = '.';
+        byte[] signature = BASE64_URL_ENCODER.encode(sign(token, signingInputLength));
+        System.arraycopy(signature, 0, token, signingInputLength + 1, signature.length);
+
+        return Jwt.withTokenValue(new String(token, StandardCharsets.US_ASCII))
+                .headers(h -> h.putAll(HEADER))
+                .claims(c -> c.putAll(claims))
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            throw new BadJwtException("Missing token");
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+        int firstDot = indexOf(bytes, 0);
+        int secondDot = firstDot < 0 ? -1 : indexOf(bytes, firstDot + 1);
+        if (secondDot < 0 || indexOf(bytes, secondDot + 1) >= 0) {
+            throw new BadJwtException("Malformed token");
+        }
+
+        Map<String, Object> headers = readHeader(bytes, firstDot);
+        if (!verifySignature(bytes, secondDot)) {
+            throw new BadJwtException("Invalid signature");
+        }
+
+        Map<String, Object> claims = FlatJsonParser.parse(base64UrlDecode(bytes, firstDot + 1, secondDot));
+        toInstant(claims, JwtClaimNames.IAT);
+        toInstant(claims, JwtClaimNames.EXP);
+        toInstant(claims, JwtClaimNames.NBF);
+        validateTimestamps(claims);
+
+        return Jwt.withTokenValue(token)
+                .headers(h -> h.putAll(headers))
+                .claims(c -> c.putAll(claims))
+                .build();
+    }
+
+    private byte[] sign(byte[] bytes, int length) {
+        Mac instance = mac.get();
+        instance.update(bytes, 0, length);
+        return instance.doFinal();
+    }
+
+    private boolean verifySignature(byte[] bytes, int secondDot) {
+        byte[] expected = BASE64_URL_ENCODER.encode(sign(bytes, secondDot));
+        int offset = secondDot + 1;
+        if (bytes.length - offset != expected.length) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length; i++) {
+            diff |= expected[i] ^ bytes[offset + i];
+        }
+        return diff == 0;
+    }
+
+    private static Map<String, Object> readHeader(byte[] bytes, int firstDot) {
+        if (regionEquals(bytes, 0, firstDot, HEADER_SEGMENT)) {
+            return HEADER;
+        }
+        Map<String, Object> headers = FlatJsonParser.parse(base64UrlDecode(bytes, 0, firstDot));
+        if (!ALGORITHM.equals(headers.get("alg"))) {
+            throw new BadJwtException("Unsupported algorithm: " + headers.get("alg"));
+        }
+        return headers;
+    }
+
+    private static void validateTimestamps(Map<String, Object> claims) {
+        Instant now = Instant.now();
+        Instant expiresAt = (Instant) claims.get(JwtClaimNames.EXP);
+        if (expiresAt != null && now.minus(CLOCK_SKEW).isAfter(expiresAt)) {
+            throw invalid("Jwt expired at " + expiresAt);
+        }
+        Instant notBefore = (Instant) claims.get(JwtClaimNames.NBF);
+        if (notBefore != null && now.plus(CLOCK_SKEW).isBefore(notBefore)) {
+            throw invalid("Jwt used before " + notBefore);
+        }
+    }
+
+    private static JwtValidationException invalid(String message) {
+        return new JwtValidationException(message, List.of(new OAuth2Error("invalid_token", message, null)));
+    }
+
+    private static void toInstant(Map<String, Object> claims, String name) {
+        Object value = claims.get(name);
+        if (value instanceof Long seconds) {
+            claims.put(name, Instant.ofEpochSecond(seconds));
+        } else if (value != null) {
+            throw new BadJwtException("Invalid " + name + " claim");
+        }
+    }
+
+    private static ByteBuffer base64UrlDecode(byte[] bytes, int from, int to) {
+        try {
+            return BASE64_URL_DECODER.decode(ByteBuffer.wrap(bytes, from, to - from));
+        } catch (IllegalArgumentException e) {
+            throw new BadJwtException("Malformed token", e);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(byte[] bytes, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String writeJson(Map<String, Object> claims) {
+        StringBuilder json = new StringBuilder(256).append('{');
+        for (Map.Entry<String, Object> claim : claims.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            writeString(json, claim.getKey());
+            json.append(':');
+            Object value = claim.getValue();
+            if (value instanceof String s) {
+                writeString(json, s);
+            } else if (value instanceof Instant instant) {
+                json.append(instant.getEpochSecond());
+            } else if (value instanceof Long || value instanceof Integer
+                    || value instanceof Short || value instanceof Byte || value instanceof Boolean) {
+                json.append(value);
+            } else if (value == null) {
+                json.append("null");
+            } else {
+                throw new JwtEncodingException("Unsupported claim type for " + claim.getKey() + ": " + value.getClass());
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static void writeString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Parser for flat JSON objects whose values are strings, integers, booleans or null.
+     * Nested objects, arrays and fractional numbers are rejected: they are never issued by this application.
+     */
+    static final class FlatJsonParser {
+
+        private final byte[] json;
+        private final int end;
+        private int pos;
+
+        private FlatJsonParser(ByteBuffer buffer) {
+            this.json = buffer.array();
+            this.pos = buffer.arrayOffset() + buffer.position();
+            this.end = pos + buffer.remaining();
+        }
+
+        static Map<String, Object> parse(ByteBuffer buffer) {
+            try {
+                return new FlatJsonParser(buffer).parseObject();
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw new BadJwtException("Malformed JSON", e);
+            }
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return finish(values);
+            }
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                Object value = parseValue();
+                if (value != null) {
+                    values.put(key, value);
+                }
+                skipWhitespace();
+                byte next = json[pos++];
+                if (next == '}') {
+                    return finish(values);
+                }
+                if (next != ',') {
+                    throw new BadJwtException("Malformed JSON");
+                }
+            }
+        }
+
+        private Map<String, Object> finish(Map<String, Object> values) {
+            skipWhitespace();
+            if (pos != end) {
+                throw new BadJwtException("Malformed JSON");
+            }
+            return values;
+        }
+
+        private Object parseValue() {
+            byte c = peek();
+            if (c == '"') {
+                pos++;
+                return parseString();
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return parseLong();
+            }
+            if (matches("true")) {
+                return Boolean.TRUE;
+            }
+            if (matches("false")) {
+                return Boolean.FALSE;
+            }
+            if (matches("null")) {
+                return null;
+            }
+            throw new BadJwtException("Unsupported JSON value");
+        }
+
+        private Long parseLong() {
+            int start = pos;
+            if (json[pos] == '-') {
+                pos++;
+            }
+            while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+                pos++;
+            }
+            if (pos < end && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E')) {
+                throw new BadJwtException("Unsupported JSON number");
+            }
+            return Long.parseLong(new String(json, start, pos - start, StandardCharsets.US_ASCII));
+        }
+
+        private String parseString() {
+            int start = pos;
+            while (json[pos] != '"') {
+                if (json[pos] == '\\') {
+                    return parseEscapedString(start);
+                }
+                pos++;
+            }
+            String value = new String(json, start, pos - start, StandardCharsets.UTF_8);
+            pos++;
+            return value;
+        }
+
+        private String parseEscapedString(int start) {
+            StringBuilder value = new StringBuilder(new String(json, start, pos - start, StandardCharsets.UTF_8));
+            int chunk = pos;
+            while (json[pos] != '"') {
+                if (json[pos] != '\\') {
+                    pos++;
+                    continue;
+                }
+                value.append(new String(json, chunk, pos - chunk, StandardCharsets.UTF_8));
+                byte escaped = json[pos + 1];
+                pos += 2;
+                switch (escaped) {
+                    case '"' -> value.append('"');
+                    case '\\' -> value.append('\\');
+                    case '/' -> value.append('/');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        value.append((char) Integer.parseInt(new String(json, pos, 4, StandardCharsets.US_ASCII), 16));
+                        pos += 4;
+                    }
+                    default -> throw new BadJwtException("Malformed JSON escape");
+                }
+                chunk = pos;
+            }
+            value.append(new String(json, chunk, pos - chunk, StandardCharsets.UTF_8));
+            pos++;
+            return value.toString();
+        }
+
+        private boolean matches(String literal) {
+            if (end - pos < literal.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[pos + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        private byte peek() {
+            if (pos >= end) {
+                throw new BadJwtException("Malformed JSON");
+            }
+            return json[pos];
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw new BadJwtException("Malformed JSON");
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
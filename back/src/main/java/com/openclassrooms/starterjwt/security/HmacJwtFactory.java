@@ -1,6 +1,7 @@
 package com.openclassrooms.starterjwt.security;
 
 import org.springframework.security.core.Authentication;
+import com.openclassrooms.starterjwt.models.AppUserDetails;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
@@ -10,43 +11,111 @@ import javax.crypto.spec.SecretKeySpec;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
+/**
+ * Émission et vérification des tokens JWT signés en HS256 avec le secret de l'application.
+ */
 public class HmacJwtFactory {
 
+    /**
+     * Implémentation utilisée pour signer et vérifier les tokens HS256. Les deux produisent des tokens interchangeables.
+     */
+    public enum Engine {
+        /** {@link NimbusJwtEncoder} / {@link NimbusJwtDecoder} de Spring Security. */
+        NIMBUS,
+        /** {@link CompactHs256JwtCodec}, encodeur et vérificateur économe en allocations. */
+        COMPACT
+    }
+
+    static final String CLAIM_USER_ID = "id";
+    static final String CLAIM_EMAIL = "email";
+    static final String CLAIM_ADMIN = "admin";
+
     private final SecretKey secretKey;
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
+    private final VerifiedTokenCache tokenCache;
 
     public HmacJwtFactory(String secret) {
+        this(secret, null);
+    }
+
+    /**
+     * @param secret le secret HMAC, d'au moins 32 caractères
+     * @param tokenCache cache des tokens déjà vérifiés, ou {@code null} pour vérifier chaque token à chaque appel
+     */
+    public HmacJwtFactory(String secret, VerifiedTokenCache tokenCache) {
+        this(secret, tokenCache, Engine.NIMBUS);
+    }
+
+    /**
+     * @param secret le secret HMAC, d'au moins 32 caractères
+     * @param tokenCache cache des tokens déjà vérifiés, ou {@code null} pour vérifier chaque token à chaque appel
+     * @param engine l'implémentation utilisée pour signer et vérifier les tokens
+     */
+    public HmacJwtFactory(String secret, VerifiedTokenCache tokenCache, Engine engine) {
         if (secret == null || secret.length() < 32) {
             throw new IllegalArgumentException("Secret must be at least 32 characters");
         }
         this.secretKey = new SecretKeySpec(secret.getBytes(), "HmacSHA256");
-        this.jwtEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(secretKey));
-        this.jwtDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        if (engine == Engine.COMPACT) {
+            CompactHs256JwtCodec codec = new CompactHs256JwtCodec(secretKey);
+            this.jwtEncoder = codec;
+            this.jwtDecoder = codec;
+        } else {
+            this.jwtEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(secretKey));
+            this.jwtDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        }
+        this.tokenCache = tokenCache;
     }
 
     public String generateToken(Authentication authentication) {
         Instant now = Instant.now();
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
                 .issuer("self")
                 .issuedAt(now)
                 .expiresAt(now.plus(1, ChronoUnit.HOURS))
                 .subject(authentication.getName())
-                .claim("roles", "USER")
-                .build();
+                .claim("roles", "USER");
 
-        JwtEncoderParameters params = JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims);
+        if (authentication.getPrincipal() instanceof AppUserDetails userDetails) {
+            claims.claim(CLAIM_USER_ID, userDetails.getId())
+                    .claim(CLAIM_EMAIL, userDetails.getEmail())
+                    .claim(CLAIM_ADMIN, userDetails.isAdmin());
+        }
+
+        JwtEncoderParameters params = JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims.build());
         return jwtEncoder.encode(params).getTokenValue();
     }
 
     public String extractUsername(String token) {
-        return jwtDecoder.decode(token).getSubject();
+        return decode(token).getSubject();
+    }
+
+    /**
+     * Construit le principal à partir des claims utilisateur d'un token vérifié, sans aucun appel au repository.
+     *
+     * @return le principal, ou {@code null} si le token ne porte pas les claims utilisateur
+     */
+    public JwtUserDetails extractUserDetails(String token) {
+        Jwt jwt = decode(token);
+        Object id = jwt.getClaim(CLAIM_USER_ID);
+        String email = jwt.getClaimAsString(CLAIM_EMAIL);
+        Boolean admin = jwt.getClaimAsBoolean(CLAIM_ADMIN);
+
+        if (!(id instanceof Number) || email == null || admin == null) {
+            return null;
+        }
+        return new JwtUserDetails(((Number) id).longValue(), email, admin);
     }
 
     public boolean validateToken(String token, String expectedUsername) {
         return extractUsername(token).equals(expectedUsername);
     }
 
+    private Jwt decode(String token) {
+        return tokenCache != null ? tokenCache.get(token, jwtDecoder::decode) : jwtDecoder.decode(token);
+    }
+
     public JwtEncoder getJwtEncoder() {
         return jwtEncoder;
     }
@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,9 +25,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsServiceImplementation userDetailsService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsServiceImplementation userDetailsService) {
+    /**
+     * Si vrai, l'utilisateur est relu en base à chaque requête ; sinon le principal
+     * est construit à partir des claims du token, sans accès au repository.
+     */
+    private final boolean dbLookup;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsServiceImplementation userDetailsService,
+                                   @Value("${jwt.authentication.db-lookup:false}") boolean dbLookup) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.dbLookup = dbLookup;
     }
 
     @Override
@@ -52,9 +62,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String username = jwtService.extractUsername(jwt);
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = dbLookup
+                    ? userDetailsService.loadUserByUsername(username)
+                    : jwtService.extractUserDetails(jwt);
 
-            if (!jwtService.validateToken(jwt, userDetails)) {
+            // Les claims proviennent du token déjà vérifié : seule la relecture en base doit être recoupée.
+            if (userDetails == null || (dbLookup && !jwtService.validateToken(jwt, userDetails))) {
                 logger.warn("Token JWT invalide pour l'utilisateur : {}", username);
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
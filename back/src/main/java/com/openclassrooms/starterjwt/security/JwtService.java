@@ -22,6 +22,10 @@ public class JwtService {
         return jwtFactory.extractUsername(token);
     }
 
+    public JwtUserDetails extractUserDetails(String token) {
+        return jwtFactory.extractUserDetails(token);
+    }
+
     public boolean validateToken(String token, UserDetails userDetails) {
         return extractUsername(token).equals(userDetails.getUsername());
     }
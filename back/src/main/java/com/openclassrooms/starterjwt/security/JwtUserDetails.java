@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Principal léger construit directement à partir des claims d'un JWT vérifié.
+ *
+ * Contrairement à {@link com.openclassrooms.starterjwt.models.AppUserDetails}, il ne porte
+ * aucune entité {@code User} : il est utilisé par {@link JwtAuthenticationFilter} pour
+ * authentifier une requête sans relire la table {@code users}.
+ */
+public class JwtUserDetails implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final boolean admin;
+
+    public JwtUserDetails(Long id, String email, boolean admin) {
+        this.id = id;
+        this.email = email;
+        this.admin = admin;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (admin) {
+            return List.of(() -> "ROLE_ADMIN", () -> "ROLE_USER");
+        } else {
+            return List.of(() -> "ROLE_USER");
+        }
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtUserDetails{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", admin=" + admin +
+                '}';
+    }
+}
@@ -0,0 +1,229 @@
+package com.openclassrooms.starterjwt.security;
+
+import com.openclassrooms.starterjwt.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Limiteur des échecs de connexion par email et par adresse IP, sur fenêtre glissante.
+ *
+ * Les compteurs sont des tableaux fixes de {@code long} atomiques, indexés par hachage
+ * (deux lignes, chacune avec son propre hachage de la clé, on retient le minimum) : la mémoire
+ * est bornée quel que soit le nombre d'emails ou d'IP vus, et les collisions ne peuvent que
+ * surestimer un compteur. Deux clés ne partagent leurs compteurs que si elles se heurtent dans
+ * les deux lignes à la fois.
+ * La fenêtre glissante est approchée par deux fenêtres fixes pondérées.
+ *
+ * Au-delà du seuil, chaque tentative est refusée avant toute vérification BCrypt et compte
+ * elle-même comme un échec, pour la seule clé qui a atteint son seuil : le {@code Retry-After}
+ * croît alors de {@code backoff-multiplier} à chaque seuil franchi, jusqu'à
+ * {@code max-lockout-seconds}. Une IP bloquée ne peut donc pas faire monter les compteurs des
+ * emails qu'elle essaie, ni un compte bloqué celui de l'IP de son utilisateur. Un client qui
+ * cesse ses tentatives est libéré dès que la fenêtre a glissé.
+ */
+@Component
+public class LoginThrottle implements MeterBinder {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final long lockoutSeconds;
+    private final double backoffMultiplier;
+    private final long maxLockoutSeconds;
+    private final LongSupplier clock;
+
+    private final SlidingCounter emailFailures;
+    private final SlidingCounter ipFailures;
+    private volatile Counter emailRejections;
+    private volatile Counter ipRejections;
+
+    @Autowired
+    public LoginThrottle(@Value("${security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${security.login-throttle.window-seconds:300}") long windowSeconds,
+                         @Value("${security.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                         @Value("${security.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+                         @Value("${security.login-throttle.lockout-seconds:30}") long lockoutSeconds,
+                         @Value("${security.login-throttle.backoff-multiplier:2}") double backoffMultiplier,
+                         @Value("${security.login-throttle.max-lockout-seconds:900}") long maxLockoutSeconds,
+                         @Value("${security.login-throttle.stripes:4096}") int stripes) {
+        this(enabled, windowSeconds, maxFailuresPerEmail, maxFailuresPerIp, lockoutSeconds,
+                backoffMultiplier, maxLockoutSeconds, stripes, System::currentTimeMillis);
+    }
+
+    LoginThrottle(boolean enabled, long windowSeconds, int maxFailuresPerEmail, int maxFailuresPerIp,
+                  long lockoutSeconds, double backoffMultiplier, long maxLockoutSeconds, int stripes,
+                  LongSupplier clock) {
+        this.enabled = enabled;
+        this.windowMillis = windowSeconds * 1000;
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.lockoutSeconds = lockoutSeconds;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxLockoutSeconds = maxLockoutSeconds;
+        this.clock = clock;
+        this.emailFailures = new SlidingCounter(stripes);
+        this.ipFailures = new SlidingCounter(stripes);
+    }
+
+    /**
+     * Vérifie que l'email et l'IP sont sous leurs seuils d'échecs.
+     *
+     * @throws TooManyRequestsException si l'un des deux seuils est atteint ; la tentative est
+     *                                  alors comptée comme un échec supplémentaire de cette clé
+     */
+    public void checkAllowed(String email, String ip) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        double emailEstimate = emailFailures.estimate(normalize(email), now);
+        double ipEstimate = ipFailures.estimate(ip, now);
+
+        if (emailEstimate >= maxFailuresPerEmail) {
+            increment(emailRejections);
+            emailFailures.increment(normalize(email), now);
+            throw new TooManyRequestsException("Too many failed logins for this account",
+                    retryAfter(emailEstimate, maxFailuresPerEmail));
+        }
+        if (ipEstimate >= maxFailuresPerIp) {
+            increment(ipRejections);
+            ipFailures.increment(ip, now);
+            throw new TooManyRequestsException("Too many failed logins from this address",
+                    retryAfter(ipEstimate, maxFailuresPerIp));
+        }
+    }
+
+    public void recordFailure(String email, String ip) {
+        if (enabled) {
+            long now = clock.getAsLong();
+            emailFailures.increment(normalize(email), now);
+            ipFailures.increment(ip, now);
+        }
+    }
+
+    /**
+     * {@code lockout * multiplier^n}, n étant le nombre de seuils franchis au-delà du premier.
+     */
+    private long retryAfter(double estimate, int threshold) {
+        int level = (int) Math.floor(estimate / Math.max(threshold, 1)) - 1;
+        double seconds = lockoutSeconds * Math.pow(backoffMultiplier, Math.max(level, 0));
+        return (long) Math.min(seconds, maxLockoutSeconds);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        emailRejections = Counter.builder("security.login.throttled")
+                .tag("key", "email")
+                .description("Login attempts refused before password verification")
+                .register(registry);
+        ipRejections = Counter.builder("security.login.throttled")
+                .tag("key", "ip")
+                .description("Login attempts refused before password verification")
+                .register(registry);
+    }
+
+    /**
+     * Compteurs approchés sur deux fenêtres fixes consécutives.
+     *
+     * Chaque case contient {@code (numéro de fenêtre << 32) | compte} ; une case dont le numéro
+     * de fenêtre est périmé vaut zéro et est réinitialisée par CAS à la première incrémentation.
+     * Les fenêtres paires et impaires occupent des cases distinctes.
+     */
+    private final class SlidingCounter {
+
+        private static final int ROWS = 2;
+        /** Graine du hachage de chaque ligne. */
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B};
+
+        private final int mask;
+        private final AtomicLongArray slots;
+
+        SlidingCounter(int stripes) {
+            int size = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+            this.mask = size - 1;
+            this.slots = new AtomicLongArray(ROWS * size * 2);
+        }
+
+        void increment(String key, long now) {
+            long window = now / windowMillis;
+            for (int row = 0; row < ROWS; row++) {
+                int index = index(hash(key, SEEDS[row]), row, window);
+                long current;
+                long next;
+                do {
+                    current = slots.get(index);
+                    next = (current >>> 32) == (window & 0xFFFFFFFFL)
+                            ? current + 1
+                            : (window << 32) | 1;
+                } while (!slots.compareAndSet(index, current, next));
+            }
+        }
+
+        /**
+         * Échecs de la fenêtre courante, plus ceux de la précédente au prorata de leur
+         * recouvrement avec la fenêtre glissante.
+         */
+        double estimate(String key, long now) {
+            long window = now / windowMillis;
+            double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+            double estimate = Double.MAX_VALUE;
+            for (int row = 0; row < ROWS; row++) {
+                int hash = hash(key, SEEDS[row]);
+                long current = count(index(hash, row, window), window);
+                long previous = count(index(hash, row, window - 1), window - 1);
+                estimate = Math.min(estimate, current + previous * previousWeight);
+            }
+            return estimate;
+        }
+
+        private long count(int index, long window) {
+            long value = slots.get(index);
+            return (value >>> 32) == (window & 0xFFFFFFFFL) ? value & 0xFFFFFFFFL : 0;
+        }
+
+        private int index(int hash, int row, long window) {
+            int stripe = hash & mask;
+            return ((row * (mask + 1) + stripe) << 1) | (int) (window & 1);
+        }
+
+        /**
+         * MurmurHash3 (32 bits) des caractères de la clé, un caractère par bloc. La graine entre
+         * dans chaque étape : contrairement à {@link String#hashCode()}, deux clés qui se
+         * heurtent pour une graine ne se heurtent pas pour une autre.
+         */
+        private static int hash(String key, int seed) {
+            int h = seed;
+            int length = key == null ? 0 : key.length();
+            for (int i = 0; i < length; i++) {
+                int k = key.charAt(i) * 0xCC9E2D51;
+                k = Integer.rotateLeft(k, 15) * 0x1B873593;
+                h = Integer.rotateLeft(h ^ k, 13) * 5 + 0xE6546B64;
+            }
+            h ^= length;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.openclassrooms.starterjwt.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Construit l'encodeur de mots de passe de l'application.
+ *
+ * Les hachages sont préfixés par leur algorithme ({@code {bcrypt}}, {@code {pbkdf2}},
+ * {@code {argon2}}) ; les anciens hachages BCrypt sans préfixe restent vérifiables.
+ * Au démarrage, si {@code security.password-hashing.calibrate} est actif, le coût de
+ * l'algorithme choisi est ajusté pour qu'un hachage prenne environ {@code target-millis}
+ * sur la machine. Un hachage dont l'algorithme ou le coût est dépassé est ré-encodé au
+ * prochain login réussi (voir {@link UserDetailsServiceImplementation#updatePassword}).
+ */
+@Slf4j
+@Component
+public class PasswordEncoderCalibrator {
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+    static final String ARGON2 = "argon2";
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int PROBE_BCRYPT_STRENGTH = 8;
+    private static final int MIN_PBKDF2_ITERATIONS = 310_000;
+    private static final int PROBE_PBKDF2_ITERATIONS = 20_000;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int PROBE_ARGON2_ITERATIONS = 1;
+    private static final String PROBE_PASSWORD = "calibration-password";
+
+    private final String algorithm;
+    private final boolean calibrate;
+    private final long targetMillis;
+    private final int bcryptStrength;
+    private final int pbkdf2Iterations;
+    private final int argon2Iterations;
+    private final int argon2MemoryKb;
+
+    public PasswordEncoderCalibrator(@Value("${security.password-hashing.algorithm:bcrypt}") String algorithm,
+                                     @Value("${security.password-hashing.calibrate:false}") boolean calibrate,
+                                     @Value("${security.password-hashing.target-millis:250}") long targetMillis,
+                                     @Value("${security.password-hashing.bcrypt-strength:10}") int bcryptStrength,
+                                     @Value("${security.password-hashing.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                                     @Value("${security.password-hashing.argon2-iterations:2}") int argon2Iterations,
+                                     @Value("${security.password-hashing.argon2-memory-kb:16384}") int argon2MemoryKb) {
+        this.algorithm = algorithm.trim().toLowerCase(Locale.ROOT);
+        this.calibrate = calibrate;
+        this.targetMillis = targetMillis;
+        this.bcryptStrength = bcryptStrength;
+        this.pbkdf2Iterations = pbkdf2Iterations;
+        this.argon2Iterations = argon2Iterations;
+        this.argon2MemoryKb = argon2MemoryKb;
+        if (!Set.of(BCRYPT, PBKDF2, ARGON2).contains(this.algorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Encodeur délégant : encode avec l'algorithme configuré, vérifie tous les autres.
+     */
+    public PasswordEncoder createEncoder() {
+        int bcryptCost = bcryptStrength;
+        int pbkdf2Cost = pbkdf2Iterations;
+        int argon2Cost = argon2Iterations;
+        if (calibrate) {
+            switch (algorithm) {
+                case BCRYPT -> bcryptCost = calibrateBcryptStrength();
+                case PBKDF2 -> pbkdf2Cost = calibrateLinear(PROBE_PBKDF2_ITERATIONS, MIN_PBKDF2_ITERATIONS, this::pbkdf2);
+                default -> argon2Cost = calibrateLinear(PROBE_ARGON2_ITERATIONS, MIN_ARGON2_ITERATIONS, this::argon2);
+            }
+        }
+        log.info("Password hashing: {} (bcrypt strength {}, pbkdf2 iterations {}, argon2 iterations {})",
+                algorithm, bcryptCost, pbkdf2Cost, argon2Cost);
+
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptCost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, Map.of(
+                BCRYPT, bcrypt,
+                PBKDF2, pbkdf2(pbkdf2Cost),
+                ARGON2, argon2(argon2Cost)));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Chaque incrément de force BCrypt double le temps de calcul : on mesure une force basse
+     * et on extrapole.
+     */
+    int calibrateBcryptStrength() {
+        double probeMillis = measureMillis(new BCryptPasswordEncoder(PROBE_BCRYPT_STRENGTH));
+        int strength = PROBE_BCRYPT_STRENGTH + (int) Math.floor(log2(targetMillis / probeMillis));
+        return Math.max(MIN_BCRYPT_STRENGTH, Math.min(MAX_BCRYPT_STRENGTH, strength));
+    }
+
+    /**
+     * Le temps de PBKDF2 et d'Argon2 est proportionnel au nombre d'itérations.
+     */
+    int calibrateLinear(int probeCost, int minCost, IntFunction<PasswordEncoder> factory) {
+        double probeMillis = measureMillis(factory.apply(probeCost));
+        long cost = (long) (probeCost * (targetMillis / probeMillis));
+        return (int) Math.max(minCost, Math.min(Integer.MAX_VALUE, cost));
+    }
+
+    private PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    private PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKb, iterations);
+    }
+
+    /**
+     * Meilleur temps sur trois hachages, après un hachage de chauffe.
+     */
+    private static double measureMillis(PasswordEncoder encoder) {
+        encoder.encode(PROBE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(PROBE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(best, 1) / 1_000_000.0;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.openclassrooms.starterjwt.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.openclassrooms.starterjwt.models.AppUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache borné (taille et durée de vie) des {@link AppUserDetails} chargés par email.
+ *
+ * Il est invalidé par {@link com.openclassrooms.starterjwt.services.UserService} à chaque
+ * écriture sur un utilisateur. Désactivé via {@code security.user-cache.enabled=false},
+ * chaque appel relit la table {@code users}.
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    static final String CACHE_NAME = "security.user-details";
+
+    private final boolean enabled;
+    private final Cache<String, AppUserDetails> cache;
+
+    public UserDetailsCache(@Value("${security.user-cache.enabled:true}") boolean enabled,
+                            @Value("${security.user-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retourne l'utilisateur en cache ou le charge avec {@code loader}.
+     * Les exceptions du loader (utilisateur introuvable) ne sont pas mises en cache.
+     */
+    public AppUserDetails get(String email, Function<String, AppUserDetails> loader) {
+        return enabled ? cache.get(email, loader) : loader.apply(email);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    /**
+     * Invalide l'utilisateur d'identifiant donné. Le cache étant indexé par email,
+     * l'opération parcourt les entrées ; elle n'est utilisée que sur les suppressions.
+     */
+    public void invalidateById(Long id) {
+        cache.asMap().values().removeIf(details -> id.equals(details.getId()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.openclassrooms.starterjwt.security;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.openclassrooms.starterjwt.models.AppUserDetails;
 import com.openclassrooms.starterjwt.models.User;
@@ -12,22 +13,38 @@ import com.openclassrooms.starterjwt.repositorys.UserRepository;
 
 
 @Service
-public class UserDetailsServiceImplementation implements UserDetailsService {
-    @Autowired
-    private UserRepository userRepository;
+public class UserDetailsServiceImplementation implements UserDetailsService, UserDetailsPasswordService {
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+
+    public UserDetailsServiceImplementation(UserRepository userRepository, UserDetailsCache userDetailsCache) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        System.out.println("Recherche de l'utilisateur : " + email);
+        return userDetailsCache.get(email, this::loadFromRepository);
+    }
+
+    /**
+     * Appelé par {@code DaoAuthenticationProvider} après un login réussi dont le hachage
+     * stocké utilise un algorithme ou un coût dépassé : {@code newPassword} est déjà encodé.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userDetailsCache.invalidate(user.getEmail());
+        return new AppUserDetails(user);
+    }
+
+    private AppUserDetails loadFromRepository(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + email));
 
-        org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder encoder =
-                new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
-        boolean matches = encoder.matches("motdepasse", user.getPassword());
-        System.out.println("Mot de passe correspond ? " + matches);
-
         return new AppUserDetails(user);
     }
 }
-
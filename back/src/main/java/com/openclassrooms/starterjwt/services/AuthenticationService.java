@@ -76,6 +76,16 @@ public class AuthenticationService {
         );
     }
 
+    /**
+     * Émet le token d’un utilisateur qui vient d’être enregistré, sans relire la base ni
+     * revérifier un mot de passe que l’on vient de hacher.
+     */
+    public TokenResponseDto issueToken(User user) {
+        AppUserDetails userDetails = new AppUserDetails(user);
+        return generateToken(UsernamePasswordAuthenticationToken.authenticated(
+                userDetails, null, userDetails.getAuthorities()));
+    }
+
     public String getAuthenticatedUserEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -0,0 +1,130 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import com.openclassrooms.starterjwt.exceptions.GoneException;
+import com.openclassrooms.starterjwt.models.SessionChange;
+import com.openclassrooms.starterjwt.models.SessionChange.Type;
+import com.openclassrooms.starterjwt.repositorys.SessionChangeJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.SessionChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Journal des modifications de sessions : créations, mises à jour, suppressions et
+ * inscriptions, écrites par {@link SessionService} dans la transaction de la modification.
+ *
+ * Les entrées sont gardées {@code session.changes.retention-days} jours, puis supprimées par
+ * {@link #compact()}. Un client qui demande les modifications depuis une date plus ancienne
+ * ne peut pas recevoir un historique complet : il doit relire tout le planning.
+ *
+ * Une entrée est datée à l'écriture mais n'est visible qu'au commit de sa transaction : une
+ * entrée datée juste avant une lecture peut apparaître après. {@link #syncPoint(LocalDateTime)}
+ * recule donc la borne rendue au client de {@code session.changes.grace-seconds}, qui doit
+ * dépasser la plus longue transaction d'écriture (import compris).
+ */
+@Component
+@Slf4j
+public class SessionChangeLog {
+
+    private final SessionChangeRepository sessionChangeRepository;
+    private final SessionChangeJdbcRepository sessionChangeJdbcRepository;
+    private final Duration retention;
+    private final Duration grace;
+
+    public SessionChangeLog(SessionChangeRepository sessionChangeRepository,
+                            SessionChangeJdbcRepository sessionChangeJdbcRepository,
+                            @Value("${session.changes.retention-days:30}") long retentionDays,
+                            @Value("${session.changes.grace-seconds:300}") long graceSeconds) {
+        this.sessionChangeRepository = sessionChangeRepository;
+        this.sessionChangeJdbcRepository = sessionChangeJdbcRepository;
+        this.retention = Duration.ofDays(retentionDays);
+        this.grace = Duration.ofSeconds(graceSeconds);
+    }
+
+    public void saved(Long sessionId) {
+        savedAll(List.of(sessionId));
+    }
+
+    public void savedAll(List<Long> sessionIds) {
+        LocalDateTime now = now();
+        write(sessionIds.stream().map(id -> change(id, null, Type.SAVED, now)).toList());
+    }
+
+    public void deleted(Long sessionId) {
+        write(List.of(change(sessionId, null, Type.DELETED, now())));
+    }
+
+    public void joined(Long sessionId, Long userId) {
+        write(List.of(change(sessionId, userId, Type.JOINED, now())));
+    }
+
+    public void joinedAll(List<ParticipationRequestDto> pairs) {
+        LocalDateTime now = now();
+        write(pairs.stream().map(pair -> change(pair.getSessionId(), pair.getUserId(), Type.JOINED, now)).toList());
+    }
+
+    public void left(Long sessionId, Long userId) {
+        write(List.of(change(sessionId, userId, Type.LEFT, now())));
+    }
+
+    /**
+     * Entrées écrites depuis {@code since} inclus, dans l'ordre d'écriture.
+     *
+     * @throws GoneException si {@code since} précède la période de rétention
+     */
+    public List<SessionChange> since(LocalDateTime since) {
+        if (since.isBefore(LocalDateTime.now().minus(retention))) {
+            throw new GoneException("Changes before " + retention.toDays() + " days are no longer kept");
+        }
+        return sessionChangeRepository.findSince(since);
+    }
+
+    /**
+     * Borne à rendre au client pour une lecture qui commence maintenant : l'heure courante moins
+     * la marge, sans jamais revenir avant {@code since}. Toute transaction encore ouverte a daté
+     * ses entrées après cette borne : elles seront lues à la synchronisation suivante. Les
+     * entrées déjà validées dans la marge sont renvoyées une seconde fois, ce qui est sans effet
+     * pour le client.
+     */
+    public LocalDateTime syncPoint(LocalDateTime since) {
+        LocalDateTime until = now().minus(grace);
+        return until.isBefore(since) ? since : until;
+    }
+
+    /**
+     * Supprime les entrées sorties de la période de rétention.
+     */
+    @Scheduled(initialDelayString = "${session.changes.compaction-interval-ms:3600000}",
+            fixedDelayString = "${session.changes.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compact() {
+        int removed = sessionChangeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        log.debug("Compacted {} session changes", removed);
+    }
+
+    /**
+     * Heure courante à la précision des colonnes {@code datetime(6)} : une date rendue au client
+     * puis repassée en {@code since} se compare exactement aux dates écrites.
+     */
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private void write(List<SessionChange> changes) {
+        if (!changes.isEmpty()) {
+            sessionChangeJdbcRepository.insertAll(changes);
+        }
+    }
+
+    private static SessionChange change(Long sessionId, Long userId, Type type, LocalDateTime now) {
+        return SessionChange.builder().sessionId(sessionId).userId(userId).type(type).changedAt(now).build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Modifications du planning depuis une date : état courant des sessions créées ou modifiées,
+ * ids des sessions supprimées, et dernière inscription ou désinscription de chaque couple
+ * (session, utilisateur) pour les autres sessions. {@code until} est la date à passer en
+ * {@code since} à la synchronisation suivante.
+ */
+public record SessionChanges(LocalDateTime until, List<Session> sessions, List<Long> deleted,
+                             List<SessionChange> participations) {
+}
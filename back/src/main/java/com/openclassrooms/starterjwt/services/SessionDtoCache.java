@@ -0,0 +1,98 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache borné des {@link SessionDto} complets (participants compris) servis par
+ * {@code GET /api/session/{id}}, par id de session.
+ *
+ * Une absence de l'entrée déclenche un seul chargement, même sous accès concurrents : les
+ * autres appels attendent son résultat. Une session introuvable n'est pas mise en cache.
+ * {@link SessionService} invalide l'entrée à chaque écriture sur la session, tout de suite
+ * puis après la validation de la transaction : un chargement concurrent de l'ancien état ne
+ * peut pas survivre au commit. La durée de vie ne sert que de filet pour les écritures faites
+ * hors du service. Désactivé via {@code session.dto-cache.enabled=false}, chaque appel charge
+ * et convertit la session.
+ */
+@Component
+public class SessionDtoCache implements MeterBinder {
+
+    static final String CACHE_NAME = "session.dto";
+
+    private final boolean enabled;
+    private final Cache<Long, SessionDto> cache;
+
+    public SessionDtoCache(@Value("${session.dto-cache.enabled:true}") boolean enabled,
+                           @Value("${session.dto-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${session.dto-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retourne la session en cache ou la charge avec {@code loader}, qui renvoie {@code null}
+     * pour une session introuvable. Les exceptions du loader ne sont pas mises en cache.
+     */
+    public SessionDto get(Long id, Function<Long, SessionDto> loader) {
+        return enabled ? cache.get(id, loader) : loader.apply(id);
+    }
+
+    public void invalidate(Long id) {
+        invalidateAll(List.of(id));
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> keys = List.copyOf(ids);
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+            Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                    .tag("cache", CACHE_NAME)
+                    .description("Share of lookups served from the cache since startup")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionImportResultDto;
+import com.openclassrooms.starterjwt.dto.SessionImportResultDto.RowError;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repositorys.SessionJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.TeacherRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Import d'un planning de sessions depuis un fichier CSV ou JSON, lu ligne à ligne : seules
+ * les lignes du lot en cours sont gardées en mémoire. Les professeurs sont vérifiés sur leurs
+ * ids, lus une fois pour tout le fichier, et les lignes valides insérées par lots JDBC de
+ * {@code session.bulk.batch-size}, chaque lot inscrit d'un coup au {@link SessionChangeLog}.
+ * Une ligne invalide est rejetée avec sa cause, sans interrompre l'import ; seules les
+ * {@code session.import.max-errors} premières causes sont gardées, les suivantes ne sont que
+ * comptées.
+ *
+ * Colonnes (ou attributs JSON) : {@code name}, {@code date}, {@code teacher_id},
+ * {@code description} et, facultative, {@code capacity}. La date est au format ISO-8601,
+ * avec ou sans heure ; une date avec décalage horaire est ramenée en UTC, comme pour
+ * {@code POST /api/session}.
+ */
+@Service
+public class SessionImportService {
+
+    static final List<String> COLUMNS = List.of("name", "date", "teacher_id", "description", "capacity");
+
+    private final TeacherRepository teacherRepository;
+    private final SessionJdbcRepository sessionJdbcRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final SessionTextIndex sessionTextIndex;
+    private final SessionChangeLog sessionChangeLog;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public SessionImportService(TeacherRepository teacherRepository,
+                                SessionJdbcRepository sessionJdbcRepository,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                SessionTextIndex sessionTextIndex,
+                                SessionChangeLog sessionChangeLog,
+                                @Value("${session.bulk.batch-size:500}") int batchSize,
+                                @Value("${session.import.max-errors:1000}") int maxErrors) {
+        this.teacherRepository = teacherRepository;
+        this.sessionJdbcRepository = sessionJdbcRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.sessionTextIndex = sessionTextIndex;
+        this.sessionChangeLog = sessionChangeLog;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Importe un fichier CSV UTF-8 dont la première ligne nomme les colonnes, dans un ordre
+     * quelconque. Les lignes vides sont ignorées.
+     *
+     * @throws IllegalArgumentException si l'en-tête est invalide ou le fichier mal formé
+     */
+    @Transactional
+    public SessionImportResultDto importCsv(InputStream input) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("Missing CSV header");
+        }
+        header.replaceAll(String::trim);
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        if (!COLUMNS.containsAll(header) || !header.containsAll(COLUMNS.subList(0, 4))
+                || new TreeSet<>(header).size() != header.size()) {
+            throw new IllegalArgumentException("Invalid CSV header, expected columns " + COLUMNS);
+        }
+
+        Import batch = new Import();
+        long row = 0;
+        for (List<String> fields = csv.next(); fields != null; fields = csv.next()) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            if (fields.size() != header.size()) {
+                batch.reject(row, "expected " + header.size() + " fields, found " + fields.size());
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            batch.accept(row, values);
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Importe un tableau JSON d'objets, lu élément par élément.
+     *
+     * @throws IllegalArgumentException si le document n'est pas un tableau JSON bien formé
+     */
+    @Transactional
+    public SessionImportResultDto importJson(InputStream input) throws IOException {
+        Import batch = new Import();
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A JSON array of sessions is expected");
+            }
+            long row = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                row++;
+                JsonNode node = objectMapper.readTree(parser);
+                if (node == null || !node.isObject()) {
+                    batch.reject(row, "a JSON object is expected");
+                    continue;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (String column : COLUMNS) {
+                    JsonNode value = node.get(column);
+                    values.put(column, value == null || value.isNull() ? null : value.asText());
+                }
+                batch.accept(row, values);
+            }
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return batch.finish();
+    }
+
+    /**
+     * État d'un import : ids des professeurs, lot en attente d'insertion et bilan.
+     */
+    private class Import {
+        private final Set<Long> teacherIds = teacherRepository.findAllIds();
+        private final List<Session> pending = new ArrayList<>(batchSize);
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        void accept(long row, Map<String, String> values) {
+            List<String> problems = new ArrayList<>();
+            Session session = toSession(values, problems);
+            for (ConstraintViolation<Session> violation : validator.validate(session)) {
+                String property = violation.getPropertyPath().toString();
+                if (problems.stream().noneMatch(problem -> problem.startsWith(property + ":"))) {
+                    problems.add(property + ": " + violation.getMessage());
+                }
+            }
+            if (!problems.isEmpty()) {
+                reject(row, String.join("; ", problems));
+                return;
+            }
+            pending.add(session);
+            if (pending.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        SessionImportResultDto finish() {
+            flush();
+            if (imported > 0) {
+                // Un import peut compter des milliers de lignes : l'index plein texte est
+                // reconstruit une fois, après validation, plutôt que mis à jour ligne à ligne.
+                sessionTextIndex.rebuildAfterCommit();
+            }
+            return new SessionImportResultDto(imported, rejected, errors);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            sessionChangeLog.savedAll(sessionJdbcRepository.insertAll(pending));
+            imported += pending.size();
+            pending.clear();
+        }
+
+        private Session toSession(Map<String, String> values, List<String> problems) {
+            Session session = new Session();
+            session.setName(values.get("name"));
+            session.setDescription(values.get("description"));
+
+            String date = blankToNull(values.get("date"));
+            if (date != null) {
+                try {
+                    session.setDate(parseDate(date));
+                } catch (DateTimeParseException e) {
+                    problems.add("date: invalid ISO-8601 date '" + date + "'");
+                }
+            }
+
+            String teacherId = blankToNull(values.get("teacher_id"));
+            if (teacherId == null) {
+                problems.add("teacher_id: must not be null");
+            } else {
+                try {
+                    long id = Long.parseLong(teacherId);
+                    if (teacherIds.contains(id)) {
+                        session.setTeacher(new Teacher().setId(id));
+                    } else {
+                        problems.add("teacher_id: teacher " + id + " not found");
+                    }
+                } catch (NumberFormatException e) {
+                    problems.add("teacher_id: invalid id '" + teacherId + "'");
+                }
+            }
+
+            String capacity = blankToNull(values.get("capacity"));
+            if (capacity != null) {
+                try {
+                    session.setCapacity(Integer.parseInt(capacity));
+                } catch (NumberFormatException e) {
+                    problems.add("capacity: invalid number '" + capacity + "'");
+                }
+            }
+            return session;
+        }
+    }
+
+    static LocalDateTime parseDate(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,457 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionOccupancyDto;
+import com.openclassrooms.starterjwt.exceptions.NotFoundException;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository.Seats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffusion en Server-Sent Events des places prises des sessions.
+ *
+ * Les connexions ouvertes ne tiennent aucun thread : la requête passe en mode asynchrone et
+ * seul l'{@link SseEmitter} est gardé. Après la validation d'une inscription ou d'une
+ * désinscription, la session est marquée modifiée ; un petit exécuteur relit en une requête
+ * les compteurs des sessions marquées, puis les range dans la file de chaque abonné. Une
+ * rafale d'inscriptions sur la même session ne coûte donc qu'une lecture.
+ *
+ * La file d'un abonné est un tampon circulaire de {@code session.occupancy.buffer-size}
+ * événements, qui garde au plus un événement par session : un nouveau compteur remplace celui
+ * qui n'a pas encore été envoyé. Si le tampon est plein, le plus ancien est abandonné.
+ *
+ * Un seul thread écrit à la fois vers un abonné, et l'écriture est bloquante : un client qui
+ * ne lit plus retient un thread de l'exécuteur. {@link #expireStalled()} ferme le flux d'un
+ * abonné dont l'envoi dure plus de {@code session.occupancy.send-timeout-ms}, interrompt
+ * l'envoi et ajoute un thread à l'exécuteur jusqu'à ce que cet envoi rende la main (au plus
+ * le délai d'écriture du connecteur). Les autres abonnés n'attendent donc un client bloqué
+ * que le temps de le détecter.
+ */
+@Component
+@Slf4j
+public class SessionOccupancyBroadcaster implements MeterBinder, DisposableBean {
+
+    static final String EVENT = "occupancy";
+
+    private final ParticipationJdbcRepository participationJdbcRepository;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final long sendTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile Counter dropped;
+    private volatile Counter coalesced;
+    private volatile Counter stalled;
+
+    public SessionOccupancyBroadcaster(ParticipationJdbcRepository participationJdbcRepository,
+                                       @Value("${session.occupancy.buffer-size:16}") int bufferSize,
+                                       @Value("${session.occupancy.timeout-ms:1800000}") long timeoutMillis,
+                                       @Value("${session.occupancy.max-subscribers:10000}") int maxSubscribers,
+                                       @Value("${session.occupancy.threads:2}") int threads,
+                                       @Value("${session.occupancy.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this.participationJdbcRepository = participationJdbcRepository;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        AtomicInteger index = new AtomicInteger();
+        // File non bornée, mais chaque abonné y a au plus une tâche en attente, plus un relevé.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "session-occupancy-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Ouvre un flux sur les sessions {@code sessionIds} ; le premier événement de chaque session
+     * porte son compteur courant.
+     *
+     * @throws NotFoundException     si aucune de ces sessions n'existe
+     * @throws IllegalStateException si le nombre maximal d'abonnés est atteint
+     */
+    public SseEmitter subscribe(Collection<Long> sessionIds) {
+        return subscribe(sessionIds, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Collection<Long> sessionIds, SseEmitter emitter) {
+        if (all.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many occupancy subscribers");
+        }
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(sessionIds));
+        // Abonné avant la lecture : une modification validée entre-temps est aussi reçue.
+        all.add(subscriber);
+        for (Long id : subscriber.sessionIds) {
+            subscribers.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        Map<Long, Seats> seats;
+        try {
+            seats = participationJdbcRepository.findSeats(subscriber.sessionIds);
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        if (seats.isEmpty()) {
+            unsubscribe(subscriber);
+            throw new NotFoundException();
+        }
+        seats.forEach((id, seat) -> offer(subscriber, occupancy(id, seat)));
+        return emitter;
+    }
+
+    /**
+     * Signale que les places de la session ont changé. L'envoi a lieu après la validation de
+     * la transaction en cours, et seulement si quelqu'un suit la session.
+     */
+    public void changed(Long sessionId) {
+        changedAll(List.of(sessionId));
+    }
+
+    public void changedAll(Collection<Long> sessionIds) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(sessionIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markDirty(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markDirty(ids);
+            }
+        });
+    }
+
+    /**
+     * Commentaire SSE vers chaque abonné, pour que les proxys gardent les connexions inactives
+     * ouvertes et que les clients partis soient détectés.
+     */
+    @Scheduled(initialDelayString = "${session.occupancy.heartbeat-ms:25000}",
+            fixedDelayString = "${session.occupancy.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : all) {
+            subscriber.heartbeat = true;
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Ferme le flux des abonnés dont l'envoi en cours dépasse {@code session.occupancy.send-timeout-ms}.
+     * L'émetteur reste verrouillé par l'envoi bloqué : c'est le thread de l'envoi qui le
+     * termine, une fois interrompu ou libéré par le connecteur. En attendant, un thread de plus
+     * sert les autres abonnés.
+     */
+    @Scheduled(initialDelayString = "${session.occupancy.send-timeout-ms:5000}",
+            fixedDelayString = "${session.occupancy.send-timeout-ms:5000}")
+    public void expireStalled() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        for (Subscriber subscriber : all) {
+            if (subscriber.expire(now, timeoutNanos)) {
+                log.debug("Occupancy subscriber stalled for more than {} ms, disconnecting", sendTimeoutMillis);
+                unsubscribe(subscriber);
+                increment(stalled);
+                resize(1);
+            }
+        }
+    }
+
+    public int subscribers() {
+        return all.size();
+    }
+
+    private void markDirty(List<Long> ids) {
+        boolean watched = false;
+        for (Long id : ids) {
+            if (subscribers.containsKey(id)) {
+                dirty.add(id);
+                watched = true;
+            }
+        }
+        if (watched && flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Relit les compteurs des sessions marquées, en une requête, et les range dans la file de
+     * leurs abonnés.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Seats> seats;
+        try {
+            seats = participationJdbcRepository.findSeats(ids);
+        } catch (RuntimeException e) {
+            log.warn("Could not read occupancy of sessions {}: {}", ids, e.getMessage());
+            return;
+        }
+        seats.forEach((id, seat) -> {
+            SessionOccupancyDto event = occupancy(id, seat);
+            for (Subscriber subscriber : subscribers.getOrDefault(id, Set.of())) {
+                offer(subscriber, event);
+            }
+        });
+    }
+
+    private void offer(Subscriber subscriber, SessionOccupancyDto event) {
+        switch (subscriber.offer(event)) {
+            case COALESCED -> increment(coalesced);
+            case DROPPED -> increment(dropped);
+            case QUEUED -> { }
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Vide la file d'un abonné. {@code scheduled} garantit un seul thread par abonné : un
+     * événement rangé pendant l'envoi est pris par la boucle, ou planifie un nouveau passage.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                for (SessionOccupancyDto event = subscriber.poll(); event != null; event = subscriber.poll()) {
+                    subscriber.heartbeat = false;
+                    send(subscriber, SseEmitter.event()
+                            .name(EVENT)
+                            .id(String.valueOf(event.getSessionId()))
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (subscriber.heartbeat) {
+                    subscriber.heartbeat = false;
+                    send(subscriber, SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client parti ou flux déjà terminé.
+                unsubscribe(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            } finally {
+                subscriber.scheduled.set(false);
+            }
+        } while (subscriber.isPending() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Envoi surveillé par {@link #expireStalled()} ; un abonné déclaré bloqué pendant l'envoi
+     * rend son thread supplémentaire et son flux est terminé par l'appelant.
+     */
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.startSend();
+        boolean expired;
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            expired = subscriber.endSend();
+            if (expired) {
+                resize(-1);
+            }
+        }
+        if (expired) {
+            throw new IOException("Occupancy send blocked for more than " + sendTimeoutMillis + " ms");
+        }
+    }
+
+    /**
+     * Ajoute ou retire un thread à l'exécuteur ; un thread retiré se termine à sa prochaine
+     * inactivité.
+     */
+    private synchronized void resize(int delta) {
+        int threads = executor.getCorePoolSize() + delta;
+        if (delta > 0) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!all.remove(subscriber)) {
+            return;
+        }
+        for (Long id : subscriber.sessionIds) {
+            subscribers.computeIfPresent(id, (key, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private static SessionOccupancyDto occupancy(Long id, Seats seats) {
+        return new SessionOccupancyDto(id, seats.booked(), seats.capacity());
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("session.occupancy.subscribers", this, SessionOccupancyBroadcaster::subscribers)
+                .description("Open session occupancy streams")
+                .register(registry);
+        coalesced = Counter.builder("session.occupancy.coalesced")
+                .description("Occupancy updates replaced by a newer one before being sent")
+                .register(registry);
+        dropped = Counter.builder("session.occupancy.dropped")
+                .description("Occupancy updates dropped because a subscriber buffer was full")
+                .register(registry);
+        stalled = Counter.builder("session.occupancy.stalled")
+                .description("Occupancy streams closed because a send blocked longer than the send timeout")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscriber subscriber : List.copyOf(all)) {
+            subscriber.emitter.complete();
+        }
+        executor.shutdown();
+    }
+
+    private enum Offer { QUEUED, COALESCED, DROPPED }
+
+    /**
+     * Un abonné : son flux et son tampon circulaire.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> sessionIds;
+        private final SessionOccupancyDto[] buffer = new SessionOccupancyDto[bufferSize];
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeat;
+        private int head;
+        private int size;
+        /** Thread de l'envoi en cours et son début ({@code System.nanoTime()}), sous le verrou de l'abonné. */
+        private Thread writer;
+        private long sendStarted;
+        private boolean expired;
+
+        private Subscriber(SseEmitter emitter, Set<Long> sessionIds) {
+            this.emitter = emitter;
+            this.sessionIds = sessionIds;
+        }
+
+        private synchronized Offer offer(SessionOccupancyDto event) {
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) % buffer.length;
+                if (buffer[slot].getSessionId().equals(event.getSessionId())) {
+                    buffer[slot] = event;
+                    return Offer.COALESCED;
+                }
+            }
+            Offer result = Offer.QUEUED;
+            if (size == buffer.length) {
+                buffer[head] = null;
+                head = (head + 1) % buffer.length;
+                size--;
+                result = Offer.DROPPED;
+            }
+            buffer[(head + size) % buffer.length] = event;
+            size++;
+            return result;
+        }
+
+        private synchronized SessionOccupancyDto poll() {
+            if (size == 0) {
+                return null;
+            }
+            SessionOccupancyDto event = buffer[head];
+            buffer[head] = null;
+            head = (head + 1) % buffer.length;
+            size--;
+            return event;
+        }
+
+        private synchronized boolean isPending() {
+            return size > 0 || heartbeat;
+        }
+
+        private synchronized void startSend() {
+            writer = Thread.currentThread();
+            sendStarted = System.nanoTime();
+        }
+
+        /**
+         * Fin de l'envoi ; efface l'interruption destinée à cet envoi pour qu'elle ne touche pas
+         * la tâche suivante du thread.
+         *
+         * @return {@code true} si l'abonné a été déclaré bloqué pendant l'envoi
+         */
+        private synchronized boolean endSend() {
+            writer = null;
+            if (expired) {
+                Thread.interrupted();
+            }
+            return expired;
+        }
+
+        /**
+         * Déclare l'abonné bloqué si son envoi en cours a commencé il y a plus de
+         * {@code timeoutNanos}, et interrompt cet envoi.
+         */
+        private synchronized boolean expire(long now, long timeoutNanos) {
+            if (expired || writer == null || now - sendStarted < timeoutNanos) {
+                return false;
+            }
+            expired = true;
+            writer.interrupt();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.util.List;
+
+/**
+ * Une page de la liste des sessions, ou des participants d'une session, et le curseur de la
+ * suivante, {@code null} sur la dernière page.
+ *
+ * @param <T> {@link com.openclassrooms.starterjwt.models.Session},
+ *            {@link com.openclassrooms.starterjwt.dto.SessionSummaryDto} ou
+ *            {@link com.openclassrooms.starterjwt.dto.ParticipantDto}
+ */
+public record SessionPage<T>(List<T> items, String nextCursor) {
+}
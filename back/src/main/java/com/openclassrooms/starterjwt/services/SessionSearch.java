@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtres de la recherche de sessions ; un filtre {@code null} (ou {@code false}) est ignoré.
+ *
+ * @param from          date de début, incluse
+ * @param to            date de fin, exclue
+ * @param teacherId     professeur animant la session
+ * @param name          texte contenu dans le nom, sans tenir compte de la casse
+ * @param freeSpots     uniquement les sessions sans limite ou avec une place libre
+ * @param participantId utilisateur inscrit à la session
+ */
+public record SessionSearch(LocalDateTime from, LocalDateTime to, Long teacherId, String name,
+                            boolean freeSpots, Long participantId) {
+}
@@ -0,0 +1,30 @@
+package com.openclassrooms.starterjwt.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recalcule les places prises au démarrage, une fois les beans créés et avant que le serveur
+ * web n'accepte des requêtes : une base qui avait des inscriptions avant l'ajout de la colonne
+ * {@code booked} ne doit pas laisser réserver des places déjà prises. Sans effet quand les
+ * compteurs sont justes.
+ */
+@Component
+@Slf4j
+public class SessionSeatRecount implements SmartInitializingSingleton {
+
+    private final SessionService sessionService;
+
+    public SessionSeatRecount(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int recounted = sessionService.recountBooked();
+        if (recounted > 0) {
+            log.info("Recounted booked seats of {} sessions", recounted);
+        }
+    }
+}
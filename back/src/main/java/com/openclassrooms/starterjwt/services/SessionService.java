@@ -1,16 +1,41 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.ParticipantDto;
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import com.openclassrooms.starterjwt.dto.ParticipationResultDto;
+import com.openclassrooms.starterjwt.dto.ParticipationResultDto.Outcome;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.exceptions.BadRequestException;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
 import com.openclassrooms.starterjwt.exceptions.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
-import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.SessionChange;
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository.Seats;
 import com.openclassrooms.starterjwt.repositorys.SessionRepository;
+import com.openclassrooms.starterjwt.repositorys.TableVersion;
 import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import com.openclassrooms.starterjwt.repositorys.WaitlistRepository;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 @Service
 public class SessionService {
@@ -18,62 +43,498 @@ public class SessionService {
 
     private final UserRepository userRepository;
 
-    public SessionService(SessionRepository sessionRepository, UserRepository userRepository) {
+    private final WaitlistRepository waitlistRepository;
+
+    private final ParticipationJdbcRepository participationJdbcRepository;
+
+    private final SessionTextIndex sessionTextIndex;
+
+    private final SessionChangeLog sessionChangeLog;
+
+    private final SessionOccupancyBroadcaster sessionOccupancyBroadcaster;
+
+    private final SessionDtoCache sessionDtoCache;
+
+    public SessionService(SessionRepository sessionRepository, UserRepository userRepository,
+                          WaitlistRepository waitlistRepository,
+                          ParticipationJdbcRepository participationJdbcRepository,
+                          SessionTextIndex sessionTextIndex,
+                          SessionChangeLog sessionChangeLog,
+                          SessionOccupancyBroadcaster sessionOccupancyBroadcaster,
+                          SessionDtoCache sessionDtoCache) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.participationJdbcRepository = participationJdbcRepository;
+        this.sessionTextIndex = sessionTextIndex;
+        this.sessionChangeLog = sessionChangeLog;
+        this.sessionOccupancyBroadcaster = sessionOccupancyBroadcaster;
+        this.sessionDtoCache = sessionDtoCache;
     }
 
+    /**
+     * @throws ConflictException si la liste des participants dépasse {@code capacity}
+     */
+    @Transactional
     public Session create(Session session) {
-        return this.sessionRepository.save(session);
+        countBooked(session);
+        Session saved = this.sessionRepository.save(session);
+        this.sessionTextIndex.putAfterCommit(saved.getId(), saved.getName(), saved.getDescription());
+        this.sessionChangeLog.saved(saved.getId());
+        return saved;
     }
 
+    /**
+     * Supprime la session et laisse une entrée {@code DELETED} dans le journal des
+     * modifications, pour la synchronisation des clients.
+     */
+    @Transactional
     public void delete(Long id) {
         this.sessionRepository.deleteById(id);
+        this.sessionTextIndex.removeAfterCommit(id);
+        this.sessionChangeLog.deleted(id);
+        this.sessionDtoCache.invalidate(id);
     }
 
     public List<Session> findAll() {
         return this.sessionRepository.findAll();
     }
 
+    /**
+     * Page de {@code limit} sessions triées par {@code (date, id)}, après {@code cursor}
+     * (ou depuis le début s'il est {@code null}).
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public SessionPage<Session> findPage(String cursor, int limit) {
+        Limit fetch = Limit.of(limit + 1);
+        List<Session> rows;
+        if (cursor == null) {
+            rows = this.sessionRepository.findFirstPage(fetch);
+        } else {
+            SessionCursor after = SessionCursor.decode(cursor);
+            rows = this.sessionRepository.findPageAfter(after.date(), after.id(), fetch);
+        }
+        return page(rows, limit, session -> new SessionCursor(session.getDate(), session.getId()));
+    }
+
+    /**
+     * Même pagination que {@link #findPage}, en lignes de résumé avec le nombre de participants.
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public SessionPage<SessionSummaryDto> findSummaryPage(String cursor, int limit) {
+        Limit fetch = Limit.of(limit + 1);
+        List<SessionSummaryDto> rows;
+        if (cursor == null) {
+            rows = this.sessionRepository.findFirstSummaryPage(fetch);
+        } else {
+            SessionCursor after = SessionCursor.decode(cursor);
+            rows = this.sessionRepository.findSummaryPageAfter(after.date(), after.id(), fetch);
+        }
+        return page(rows, limit, summary -> new SessionCursor(summary.getDate(), summary.getId()));
+    }
+
+    /**
+     * Recherche multicritère, paginée par curseur dans le même ordre {@code (date, id)} que
+     * {@link #findPage}.
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public SessionPage<Session> search(SessionSearch search, String cursor, int limit) {
+        SessionCursor after = cursor == null ? null : SessionCursor.decode(cursor);
+        List<Session> rows = this.sessionRepository.findBy(SessionSpecifications.matching(search, after),
+                query -> query.sortBy(SessionSpecifications.ORDER).limit(limit + 1).all());
+        return page(rows, limit, session -> new SessionCursor(session.getDate(), session.getId()));
+    }
+
+    /**
+     * Recherche plein texte dans {@link SessionTextIndex} : la page {@code page} (à partir de 0)
+     * de {@code size} sessions par pertinence décroissante, lues en une requête. Une session
+     * supprimée entre-temps est omise de la page.
+     */
+    public SessionTextPage textSearch(String query, int page, int size) {
+        SessionTextIndex.Result result = this.sessionTextIndex.search(query, Math.multiplyExact(page, size), size);
+        List<Long> ids = result.hits().stream().map(SessionTextIndex.Hit::sessionId).toList();
+        Map<Long, Session> sessions = new HashMap<>();
+        for (Session session : this.sessionRepository.findAllById(ids)) {
+            sessions.put(session.getId(), session);
+        }
+        List<Session> ranked = ids.stream().map(sessions::get).filter(Objects::nonNull).toList();
+        return new SessionTextPage(ranked, result.total());
+    }
+
+    private static <T> SessionPage<T> page(List<T> rows, int limit, Function<T, SessionCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new SessionPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, limit);
+        return new SessionPage<>(page, cursorOf.apply(page.get(limit - 1)).encode());
+    }
+
+    /**
+     * Version de la liste des sessions, sans charger d'entité.
+     */
+    public TableVersion version() {
+        return this.sessionRepository.findVersion();
+    }
+
+    /**
+     * Version d'une session, sans la charger ; {@code count} vaut 0 si elle n'existe pas.
+     */
+    public TableVersion version(Long id) {
+        return this.sessionRepository.findVersionById(id);
+    }
+
     public Session getById(Long id) {
-        return this.sessionRepository.findById(id).orElse(null);
+        return this.sessionRepository.findWithUsersById(id).orElse(null);
+    }
+
+    /**
+     * Résumé d'une session, avec le nombre de participants ; {@code null} si elle n'existe pas.
+     */
+    public SessionSummaryDto getSummaryById(Long id) {
+        return this.sessionRepository.findSummaryById(id).orElse(null);
     }
 
+    /**
+     * Remet {@code booked} en accord avec {@code participate} pour toutes les sessions ; appelé
+     * au démarrage par {@link SessionSeatRecount}, avant que les inscriptions ne s'appuient sur
+     * le compteur.
+     *
+     * @return le nombre de sessions corrigées
+     */
+    @Transactional
+    public int recountBooked() {
+        return this.sessionRepository.recountAllBooked(LocalDateTime.now());
+    }
+
+    /**
+     * Participants d'une session, paginés par curseur dans l'ordre des ids. Le curseur est
+     * l'id du dernier participant de la page précédente.
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    @Transactional(readOnly = true)
+    public SessionPage<ParticipantDto> findParticipants(Long id, String cursor, int limit) {
+        long after = cursor == null ? 0 : Long.parseLong(cursor);
+        List<ParticipantDto> rows = this.participationJdbcRepository.findParticipants(id, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new SessionPage<>(rows, null);
+        }
+        List<ParticipantDto> page = rows.subList(0, limit);
+        return new SessionPage<>(page, String.valueOf(page.get(limit - 1).getId()));
+    }
+
+    /**
+     * Remplace la session et sa liste de participants, sur la ligne verrouillée : les
+     * inscriptions concurrentes attendent la fin de la transaction. Le compteur de places est
+     * ensuite recalculé en SQL sur {@code participate}, et les places libérées (participants
+     * retirés, capacité augmentée) vont aux têtes de la liste d'attente, dans l'ordre.
+     *
+     * @return la session enregistrée, {@code null} si elle n'existe pas
+     * @throws ConflictException si la liste des participants dépasse {@code capacity}
+     */
+    @Transactional
     public Session update(Long id, Session session) {
+        if (this.sessionRepository.findForUpdateById(id).isEmpty()) {
+            return null;
+        }
         session.setId(id);
-        return this.sessionRepository.save(session);
+        countBooked(session);
+        Session saved = this.sessionRepository.save(session);
+        this.sessionRepository.recountBooked(id);
+        if (promoteWaitlist(id) > 0) {
+            saved = this.sessionRepository.findWithUsersById(id).orElseThrow();
+        }
+        this.sessionTextIndex.putAfterCommit(saved.getId(), saved.getName(), saved.getDescription());
+        this.sessionChangeLog.saved(saved.getId());
+        this.sessionOccupancyBroadcaster.changed(saved.getId());
+        this.sessionDtoCache.invalidate(saved.getId());
+        return saved;
     }
 
-    public void participate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        User user = this.userRepository.findById(userId).orElse(null);
-        if (session == null || user == null) {
-            throw new NotFoundException();
+    /**
+     * Modifications depuis {@code since}, lues dans le journal puis regroupées par session :
+     * une session créée ou modifiée est renvoyée une fois, dans son état courant ; une session
+     * supprimée ne laisse que son id ; pour les autres, seule la dernière inscription ou
+     * désinscription de chaque utilisateur est gardée. Le coût dépend du nombre de
+     * modifications, pas de la taille du planning.
+     *
+     * {@code until} est calculé avant de lire le journal et reculé de la marge de
+     * {@link SessionChangeLog#syncPoint(LocalDateTime)} : une transaction encore ouverte pendant
+     * la lecture a daté ses entrées après {@code until}, elles seront donc lues à la
+     * synchronisation suivante.
+     *
+     * @throws com.openclassrooms.starterjwt.exceptions.GoneException si {@code since} précède la
+     *                                                                  période de rétention du journal
+     */
+    @Transactional(readOnly = true)
+    public SessionChanges changesSince(LocalDateTime since) {
+        LocalDateTime until = this.sessionChangeLog.syncPoint(since);
+        Set<Long> saved = new HashSet<>();
+        Set<Long> deleted = new TreeSet<>();
+        Map<ParticipationRequestDto, SessionChange> participations = new LinkedHashMap<>();
+        for (SessionChange change : this.sessionChangeLog.since(since)) {
+            switch (change.getType()) {
+                case SAVED -> saved.add(change.getSessionId());
+                case DELETED -> deleted.add(change.getSessionId());
+                case JOINED, LEFT -> {
+                    ParticipationRequestDto key = new ParticipationRequestDto(change.getSessionId(), change.getUserId());
+                    participations.remove(key);
+                    participations.put(key, change);
+                }
+            }
         }
+        saved.removeAll(deleted);
+        List<Session> sessions = new ArrayList<>(this.sessionRepository.findAllById(saved));
+        sessions.sort(Comparator.comparing(Session::getDate).thenComparing(Session::getId));
+        List<SessionChange> others = participations.values().stream()
+                .filter(change -> !saved.contains(change.getSessionId()) && !deleted.contains(change.getSessionId()))
+                .toList();
+        return new SessionChanges(until, sessions, List.copyOf(deleted), others);
+    }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(alreadyParticipate) {
+    /**
+     * Le cas nominal tient en trois instructions, quel que soit le nombre de participants :
+     * la lecture de la tête de la liste d'attente, la réservation conditionnelle d'une place,
+     * puis l'{@code INSERT} dans {@code participate}. Tant que quelqu'un attend, les places
+     * reviennent à la file : la session est complète pour les autres. Si l'inscription échoue
+     * après la réservation, l'exception annule la transaction et rend la place. Les causes
+     * d'un refus ne sont recherchées qu'une fois le refus constaté. Les abonnés au flux
+     * d'occupation de la session sont prévenus après la validation.
+     *
+     * @throws NotFoundException   si la session ou l'utilisateur n'existe pas
+     * @throws BadRequestException si l'utilisateur participe déjà
+     * @throws ConflictException   si la session est complète ou a une liste d'attente
+     */
+    @Transactional
+    public void participate(Long id, Long userId) {
+        if (this.waitlistRepository.existsBySessionId(id) || this.sessionRepository.reserveSeat(id) == 0) {
+            throw rejection(id, userId);
+        }
+        try {
+            if (this.sessionRepository.addParticipant(id, userId) == 1) {
+                this.sessionChangeLog.joined(id, userId);
+                this.sessionOccupancyBroadcaster.changed(id);
+                this.sessionDtoCache.invalidate(id);
+                return;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Inscription concurrente : la clé unique a refusé le doublon.
             throw new BadRequestException();
         }
+        throw rejection(id, userId);
+    }
 
-        session.getUsers().add(user);
+    /**
+     * Inscriptions en masse. Trois lectures ensemblistes, quel que soit le nombre de couples :
+     * les places des sessions (lignes verrouillées, ce qui sérialise le lot avec les
+     * inscriptions unitaires), les utilisateurs existants et les inscriptions déjà présentes.
+     * Les résultats sont ensuite calculés en mémoire, dans l'ordre de la requête, et les
+     * inscriptions retenues écrites par lots JDBC avec les compteurs de places.
+     *
+     * @return le résultat de chaque couple, dans l'ordre de {@code pairs}
+     */
+    @Transactional
+    public List<ParticipationResultDto> participateAll(List<ParticipationRequestDto> pairs) {
+        // Les écritures JPA en attente doivent être visibles des requêtes JDBC.
+        this.sessionRepository.flush();
 
-        this.sessionRepository.save(session);
+        Set<Long> sessionIds = new TreeSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (ParticipationRequestDto pair : pairs) {
+            if (pair.getSessionId() != null && pair.getUserId() != null) {
+                sessionIds.add(pair.getSessionId());
+                userIds.add(pair.getUserId());
+            }
+        }
+        Map<Long, Seats> seats = sessionIds.isEmpty() ? Map.of() : this.participationJdbcRepository.lockSeats(sessionIds);
+        Set<Long> users = userIds.isEmpty() ? Set.of() : this.participationJdbcRepository.findExistingUserIds(userIds);
+        Set<ParticipationRequestDto> taken = seats.isEmpty() || users.isEmpty()
+                ? new HashSet<>()
+                : this.participationJdbcRepository.findExistingPairs(seats.keySet(), users);
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        seats.forEach((id, seat) -> remaining.put(id, seat.remaining()));
+        Map<Long, Integer> added = new HashMap<>();
+        List<ParticipationRequestDto> inserts = new ArrayList<>();
+        List<ParticipationResultDto> results = new ArrayList<>(pairs.size());
+        for (ParticipationRequestDto pair : pairs) {
+            Outcome outcome;
+            if (pair.getSessionId() == null || pair.getUserId() == null
+                    || !seats.containsKey(pair.getSessionId()) || !users.contains(pair.getUserId())) {
+                outcome = Outcome.NOT_FOUND;
+            } else if (taken.contains(pair)) {
+                outcome = Outcome.DUPLICATE;
+            } else if (remaining.get(pair.getSessionId()) == 0) {
+                outcome = Outcome.FULL;
+            } else {
+                outcome = Outcome.ADDED;
+                taken.add(pair);
+                inserts.add(pair);
+                remaining.merge(pair.getSessionId(), -1, Integer::sum);
+                added.merge(pair.getSessionId(), 1, Integer::sum);
+            }
+            results.add(new ParticipationResultDto(pair.getSessionId(), pair.getUserId(), outcome));
+        }
+
+        if (!inserts.isEmpty()) {
+            this.participationJdbcRepository.insertAll(inserts);
+            this.participationJdbcRepository.addBooked(added);
+            this.sessionChangeLog.joinedAll(inserts);
+            this.sessionOccupancyBroadcaster.changedAll(added.keySet());
+            this.sessionDtoCache.invalidateAll(added.keySet());
+        }
+        return results;
     }
 
+    /**
+     * Libère la place puis supprime l'inscription ; si la liste d'attente n'est pas vide, sa
+     * tête reprend la place dans la même transaction. La libération verrouille la ligne de la
+     * session, ce qui sérialise les promotions avec {@link #joinWaitlist}. Le nombre
+     * d'instructions ne dépend ni du nombre de participants ni de la longueur de la file.
+     *
+     * @throws NotFoundException   si la session n'existe pas
+     * @throws BadRequestException si l'utilisateur ne participe pas
+     */
+    @Transactional
     public void noLongerParticipate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        if (session == null) {
+        this.sessionRepository.releaseSeat(id);
+        if (this.sessionRepository.removeParticipant(id, userId) == 1) {
+            this.sessionChangeLog.left(id, userId);
+            promoteFromWaitlist(id);
+            this.sessionOccupancyBroadcaster.changed(id);
+            this.sessionDtoCache.invalidate(id);
+            return;
+        }
+        if (!this.sessionRepository.existsById(id)) {
             throw new NotFoundException();
         }
+        throw new BadRequestException();
+    }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(!alreadyParticipate) {
+    /**
+     * Inscrit l'utilisateur s'il reste une place et que personne n'attend, sinon l'ajoute en
+     * fin de liste d'attente. Des places libres alors que la file n'est pas vide sont d'abord
+     * données à ses têtes. Un utilisateur déjà en attente garde sa place.
+     *
+     * @return 0 si l'utilisateur a été inscrit à la session, sinon son rang dans la file
+     * @throws NotFoundException   si la session ou l'utilisateur n'existe pas
+     * @throws BadRequestException si l'utilisateur participe déjà
+     */
+    @Transactional
+    public long joinWaitlist(Long id, Long userId) {
+        Session session = this.sessionRepository.findForUpdateById(id).orElseThrow(NotFoundException::new);
+        if (!this.userRepository.existsById(userId)) {
+            throw new NotFoundException();
+        }
+        if (this.sessionRepository.existsByIdAndUsersId(id, userId)) {
             throw new BadRequestException();
         }
+        long position = this.waitlistRepository.positionOf(id, userId);
+        if (position > 0) {
+            return position;
+        }
+        int promoted = promoteWaitlist(id);
+        if (promoted > 0) {
+            this.sessionOccupancyBroadcaster.changed(id);
+            this.sessionDtoCache.invalidate(id);
+        }
+        boolean seatLeft = session.getCapacity() == null || session.getBooked() + promoted < session.getCapacity();
+        if (seatLeft && !this.waitlistRepository.existsBySessionId(id)) {
+            participate(id, userId);
+            return 0;
+        }
+        this.waitlistRepository.save(WaitlistEntry.builder()
+                .session(this.sessionRepository.getReferenceById(id))
+                .user(this.userRepository.getReferenceById(userId))
+                .build());
+        return this.waitlistRepository.positionOf(id, userId);
+    }
+
+    /**
+     * @return le rang de l'utilisateur dans la liste d'attente, à partir de 1
+     * @throws NotFoundException si l'utilisateur n'est pas en attente pour cette session
+     */
+    public long waitlistPosition(Long id, Long userId) {
+        long position = this.waitlistRepository.positionOf(id, userId);
+        if (position == 0) {
+            throw new NotFoundException();
+        }
+        return position;
+    }
 
-        session.setUsers(session.getUsers().stream().filter(user -> !user.getId().equals(userId)).collect(Collectors.toList()));
+    /**
+     * @throws NotFoundException si l'utilisateur n'est pas en attente pour cette session
+     */
+    @Transactional
+    public void leaveWaitlist(Long id, Long userId) {
+        WaitlistEntry entry = this.waitlistRepository.findBySessionIdAndUserId(id, userId)
+                .orElseThrow(NotFoundException::new);
+        this.waitlistRepository.removeEntry(entry.getId());
+    }
 
-        this.sessionRepository.save(session);
+    /**
+     * Donne les places libres aux têtes de la file, une par une, tant qu'il en reste et que
+     * quelqu'un attend.
+     *
+     * @return le nombre d'utilisateurs inscrits depuis la file
+     */
+    private int promoteWaitlist(Long id) {
+        int promoted = 0;
+        while (promoteFromWaitlist(id)) {
+            promoted++;
+        }
+        return promoted;
+    }
+
+    /**
+     * Donne la place libérée à la tête de la file : une lecture d'index, la réservation,
+     * le retrait de l'entrée et l'inscription. Une entrée retirée entre-temps par son
+     * utilisateur, ou dont l'utilisateur participe déjà, cède la place à la suivante.
+     *
+     * @return vrai si un utilisateur a été inscrit
+     */
+    private boolean promoteFromWaitlist(Long id) {
+        Optional<WaitlistEntry> head = this.waitlistRepository.findFirstBySessionIdOrderByIdAsc(id);
+        if (head.isEmpty() || this.sessionRepository.reserveSeat(id) == 0) {
+            return false;
+        }
+        while (head.isPresent()) {
+            WaitlistEntry entry = head.get();
+            Long userId = entry.getUser().getId();
+            if (this.waitlistRepository.removeEntry(entry.getId()) == 1
+                    && this.sessionRepository.addParticipant(id, userId) == 1) {
+                this.sessionChangeLog.joined(id, userId);
+                return true;
+            }
+            head = this.waitlistRepository.findFirstBySessionIdOrderByIdAsc(id);
+        }
+        this.sessionRepository.releaseSeat(id);
+        return false;
+    }
+
+    private RuntimeException rejection(Long id, Long userId) {
+        if (!this.sessionRepository.existsById(id) || !this.userRepository.existsById(userId)) {
+            return new NotFoundException();
+        }
+        if (this.sessionRepository.existsByIdAndUsersId(id, userId)) {
+            return new BadRequestException();
+        }
+        return new ConflictException("Session is full");
+    }
+
+    /**
+     * Création et mise à jour remplacent la liste des participants en bloc : le compteur
+     * de places suit, sans dépasser {@code capacity}.
+     *
+     * @throws ConflictException si la liste des participants dépasse {@code capacity}
+     */
+    private static void countBooked(Session session) {
+        session.setBooked(session.getUsers() == null ? 0 : session.getUsers().size());
+        if (session.getCapacity() != null && session.getBooked() > session.getCapacity()) {
+            throw new ConflictException("Participants exceed capacity");
+        }
     }
 }
@@ -0,0 +1,75 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Critères de recherche des sessions, à combiner avec
+ * {@link com.openclassrooms.starterjwt.repositorys.SessionRepository#findBy}.
+ *
+ * Les filtres sélectifs s'appuient sur des index composites : {@code idx_sessions_date_id}
+ * pour une période seule, {@code idx_sessions_teacher_date_id} pour un professeur (égalité
+ * d'abord, puis la période et l'ordre {@code (date, id)}), {@code idx_participate_user_session}
+ * pour les sessions d'un utilisateur. La recherche par nom et les places libres filtrent les
+ * lignes retenues par ces index.
+ */
+public final class SessionSpecifications {
+
+    /**
+     * Ordre de la recherche, le même que celui de la liste paginée par curseur.
+     */
+    public static final Sort ORDER = Sort.by("date", "id");
+
+    private SessionSpecifications() {
+    }
+
+    /**
+     * Sessions satisfaisant tous les filtres de {@code search}, après {@code after} dans
+     * l'ordre {@link #ORDER} s'il n'est pas {@code null}.
+     */
+    public static Specification<Session> matching(SessionSearch search, SessionCursor after) {
+        List<Specification<Session>> filters = new ArrayList<>();
+        if (search.from() != null) {
+            filters.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), search.from()));
+        }
+        if (search.to() != null) {
+            filters.add((root, query, cb) -> cb.lessThan(root.get("date"), search.to()));
+        }
+        if (search.teacherId() != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("teacher").get("id"), search.teacherId()));
+        }
+        if (search.name() != null && !search.name().isBlank()) {
+            String pattern = "%" + escapeLike(search.name().trim().toLowerCase(Locale.ROOT)) + "%";
+            filters.add((root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\'));
+        }
+        if (search.freeSpots()) {
+            filters.add((root, query, cb) -> cb.or(
+                    cb.isNull(root.get("capacity")),
+                    cb.lessThan(root.get("booked"), root.<Integer>get("capacity"))));
+        }
+        if (search.participantId() != null) {
+            // Jointure sur participate seule : (session_id, user_id) est unique, pas de doublon.
+            filters.add((root, query, cb) -> {
+                Join<Session, User> users = root.join("users");
+                return cb.equal(users.get("id"), search.participantId());
+            });
+        }
+        if (after != null) {
+            filters.add((root, query, cb) -> cb.or(
+                    cb.greaterThan(root.get("date"), after.date()),
+                    cb.and(cb.equal(root.get("date"), after.date()), cb.greaterThan(root.get("id"), after.id()))));
+        }
+        return Specification.allOf(filters);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,442 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repositorys.SessionJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire du nom et de la description des sessions, pour la recherche plein
+ * texte sans {@code LIKE '%x%'} sur la table.
+ *
+ * Les mots sont mis en minuscules et débarrassés de leurs accents ; ceux d'une lettre sont
+ * ignorés. Chaque mot de la requête est un préfixe ({@code "yo"} trouve {@code "yoga"}) et une
+ * session doit les contenir tous. Le score est un TF-IDF : {@code (1 + ln tf) × ln(1 + N / df)}
+ * par terme trouvé, un mot du nom comptant pour {@value #NAME_WEIGHT} mots de la description.
+ *
+ * Les listes de postings sont des tableaux de {@code int} (numéro de document et fréquence),
+ * agrandis par doublement ; le dictionnaire trié sert la recherche par préfixe. L'index est
+ * construit au démarrage, puis tenu à jour par {@link SessionService} après la validation de
+ * chaque création, modification ou suppression : une transaction annulée ne le touche pas. Sa taille estimée est publiée sous {@code session.text-index.*}.
+ */
+@Component
+@Slf4j
+public class SessionTextIndex implements MeterBinder {
+
+    static final int NAME_WEIGHT = 3;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Une page de résultats, par score décroissant, et le nombre total de sessions trouvées.
+     */
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    public record Hit(long sessionId, float score) {
+    }
+
+    private final SessionJdbcRepository sessionJdbcRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Terme → numéro de terme, trié pour la recherche par préfixe. */
+    private final TreeMap<String, Integer> terms = new TreeMap<>();
+    private String[] termNames = new String[16];
+    private int[][] postingDocs = new int[16][];
+    private int[][] postingFreqs = new int[16][];
+    private int[] postingSizes = new int[16];
+    private int[] freeTerms = new int[16];
+    private int freeTermCount;
+    private int termCount;
+
+    /** Numéro de document → id de session (-1 si libre) et termes distincts du document. */
+    private final Map<Long, Integer> docOf = new HashMap<>();
+    private long[] sessionIds = new long[16];
+    private int[][] docTerms = new int[16][];
+    private int[] freeDocs = new int[16];
+    private int freeDocCount;
+    private int docCount;
+
+    public SessionTextIndex(SessionJdbcRepository sessionJdbcRepository) {
+        this.sessionJdbcRepository = sessionJdbcRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruit l'index depuis la table {@code sessions}. Les recherches attendent la fin
+     * de la reconstruction.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            sessionJdbcRepository.forEachText(this::add);
+            log.info("Session text index built: {} sessions, {} terms, ~{} KiB",
+                    docOf.size(), terms.size(), estimatedBytes() / 1024);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruit l'index après la validation de la transaction en cours (tout de suite s'il
+     * n'y en a pas) : pour les écritures en masse, dont les ids ne sont pas relus.
+     */
+    public void rebuildAfterCommit() {
+        afterCommit(this::rebuild);
+    }
+
+    /**
+     * {@link #put} après la validation de la transaction en cours, tout de suite s'il n'y en a
+     * pas.
+     */
+    public void putAfterCommit(Long sessionId, String name, String description) {
+        afterCommit(() -> put(sessionId, name, description));
+    }
+
+    /**
+     * {@link #remove} après la validation de la transaction en cours, tout de suite s'il n'y en
+     * a pas.
+     */
+    public void removeAfterCommit(Long sessionId) {
+        afterCommit(() -> remove(sessionId));
+    }
+
+    /**
+     * Indexe une session, en remplaçant son texte précédent.
+     */
+    public void put(Long sessionId, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            remove0(sessionId);
+            add(sessionId, name, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long sessionId) {
+        lock.writeLock().lock();
+        try {
+            remove0(sessionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sessions contenant tous les mots de {@code query} (en préfixe), par score décroissant
+     * puis id croissant.
+     */
+    public Result search(String query, int offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            float[] scores = new float[docCount];
+            // Nombre de mots de la requête trouvés dans chaque document, moins un.
+            int[] matched = new int[docCount];
+            Arrays.fill(matched, -1);
+            double live = docOf.size();
+            for (int token = 0; token < tokens.size(); token++) {
+                String prefix = tokens.get(token);
+                SortedMap<String, Integer> expansions = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+                for (int term : expansions.values()) {
+                    int size = postingSizes[term];
+                    float idf = (float) Math.log(1 + live / size);
+                    int[] docs = postingDocs[term];
+                    int[] freqs = postingFreqs[term];
+                    for (int i = 0; i < size; i++) {
+                        int doc = docs[i];
+                        if (matched[doc] == token - 1) {
+                            matched[doc] = token;
+                        } else if (matched[doc] != token) {
+                            continue;
+                        }
+                        scores[doc] += (float) (1 + Math.log(freqs[i])) * idf;
+                    }
+                }
+            }
+
+            int last = tokens.size() - 1;
+            List<Hit> hits = new ArrayList<>();
+            for (int doc = 0; doc < docCount; doc++) {
+                if (matched[doc] == last) {
+                    hits.add(new Hit(sessionIds[doc], scores[doc]));
+                }
+            }
+            hits.sort(Comparator.comparing(Hit::score).reversed().thenComparing(Hit::sessionId));
+            int from = Math.min(offset, hits.size());
+            int to = (int) Math.min((long) from + limit, hits.size());
+            return new Result(List.copyOf(hits.subList(from, to)), hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documents() {
+        lock.readLock().lock();
+        try {
+            return docOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int terms() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Taille approximative de l'index, en octets : tableaux alloués (capacité comprise),
+     * dictionnaire et table des documents, sur une JVM 64 bits à références compressées.
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("session.text-index.documents", this, SessionTextIndex::documents)
+                .description("Sessions in the full-text index")
+                .register(registry);
+        Gauge.builder("session.text-index.terms", this, SessionTextIndex::terms)
+                .description("Distinct terms in the full-text index")
+                .register(registry);
+        Gauge.builder("session.text-index.memory", this, SessionTextIndex::memoryBytes)
+                .description("Estimated heap used by the full-text index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    /**
+     * Mots normalisés de {@code text} : minuscules, sans accents, séparés par tout caractère
+     * qui n'est ni une lettre ni un chiffre.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void clear() {
+        terms.clear();
+        termNames = new String[16];
+        postingDocs = new int[16][];
+        postingFreqs = new int[16][];
+        postingSizes = new int[16];
+        freeTermCount = 0;
+        termCount = 0;
+        docOf.clear();
+        sessionIds = new long[16];
+        docTerms = new int[16][];
+        freeDocCount = 0;
+        docCount = 0;
+    }
+
+    private void add(long sessionId, String name, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(name)) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(description)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        int doc = allocateDoc();
+        sessionIds[doc] = sessionId;
+        docOf.put(sessionId, doc);
+        int[] termIds = new int[frequencies.size()];
+        int n = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            int term = termId(entry.getKey());
+            appendPosting(term, doc, entry.getValue());
+            termIds[n++] = term;
+        }
+        docTerms[doc] = termIds;
+    }
+
+    private void remove0(Long sessionId) {
+        Integer doc = docOf.remove(sessionId);
+        if (doc == null) {
+            return;
+        }
+        for (int term : docTerms[doc]) {
+            removePosting(term, doc);
+        }
+        docTerms[doc] = null;
+        sessionIds[doc] = -1;
+        freeDocs = push(freeDocs, freeDocCount++, doc);
+    }
+
+    private int allocateDoc() {
+        if (freeDocCount > 0) {
+            return freeDocs[--freeDocCount];
+        }
+        if (docCount == sessionIds.length) {
+            sessionIds = Arrays.copyOf(sessionIds, docCount * 2);
+            docTerms = Arrays.copyOf(docTerms, docCount * 2);
+        }
+        return docCount++;
+    }
+
+    private int termId(String token) {
+        Integer existing = terms.get(token);
+        if (existing != null) {
+            return existing;
+        }
+        int term;
+        if (freeTermCount > 0) {
+            term = freeTerms[--freeTermCount];
+        } else {
+            if (termCount == postingSizes.length) {
+                termNames = Arrays.copyOf(termNames, termCount * 2);
+                postingDocs = Arrays.copyOf(postingDocs, termCount * 2);
+                postingFreqs = Arrays.copyOf(postingFreqs, termCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, termCount * 2);
+            }
+            term = termCount++;
+        }
+        postingDocs[term] = EMPTY;
+        postingFreqs[term] = EMPTY;
+        postingSizes[term] = 0;
+        termNames[term] = token;
+        terms.put(token, term);
+        return term;
+    }
+
+    private void appendPosting(int term, int doc, int frequency) {
+        int size = postingSizes[term];
+        if (size == postingDocs[term].length) {
+            int capacity = Math.max(2, size * 2);
+            postingDocs[term] = Arrays.copyOf(postingDocs[term], capacity);
+            postingFreqs[term] = Arrays.copyOf(postingFreqs[term], capacity);
+        }
+        postingDocs[term][size] = doc;
+        postingFreqs[term][size] = frequency;
+        postingSizes[term] = size + 1;
+    }
+
+    /**
+     * Retire {@code doc} des postings du terme, en le remplaçant par le dernier élément ;
+     * un terme qui n'a plus de document quitte le dictionnaire et son numéro est réutilisé.
+     */
+    private void removePosting(int term, int doc) {
+        int[] docs = postingDocs[term];
+        int last = postingSizes[term] - 1;
+        for (int i = 0; i <= last; i++) {
+            if (docs[i] == doc) {
+                docs[i] = docs[last];
+                postingFreqs[term][i] = postingFreqs[term][last];
+                break;
+            }
+        }
+        postingSizes[term] = last;
+        if (last == 0) {
+            terms.remove(termNames[term]);
+            termNames[term] = null;
+            postingDocs[term] = null;
+            postingFreqs[term] = null;
+            freeTerms = push(freeTerms, freeTermCount++, term);
+        } else if (last < docs.length / 4) {
+            postingDocs[term] = Arrays.copyOf(docs, docs.length / 2);
+            postingFreqs[term] = Arrays.copyOf(postingFreqs[term], docs.length / 2);
+        }
+    }
+
+    private static int[] push(int[] stack, int size, int value) {
+        int[] target = size == stack.length ? Arrays.copyOf(stack, size * 2) : stack;
+        target[size] = value;
+        return target;
+    }
+
+    private long estimatedBytes() {
+        long bytes = 0;
+        for (int term = 0; term < termCount; term++) {
+            if (postingDocs[term] != null) {
+                bytes += 2 * (16 + 4L * postingDocs[term].length);
+            }
+        }
+        bytes += 4 * (16 + 4L * postingSizes.length) + 16 + 4L * freeTerms.length;
+        for (String term : terms.keySet()) {
+            // Entrée du TreeMap, String et son tableau d'octets, Integer.
+            bytes += 40 + 24 + 16 + term.length() + 16;
+        }
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docTerms[doc] != null) {
+                bytes += 16 + 4L * docTerms[doc].length;
+            }
+        }
+        bytes += 16 + 8L * sessionIds.length + 16 + 4L * docTerms.length + 16 + 4L * freeDocs.length;
+        // Entrée du HashMap, Long et Integer, et la table elle-même.
+        bytes += docOf.size() * (32 + 16 + 16 + 4L * 2);
+        return bytes;
+    }
+}
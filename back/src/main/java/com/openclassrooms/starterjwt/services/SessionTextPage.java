@@ -0,0 +1,12 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+
+import java.util.List;
+
+/**
+ * Une page de la recherche plein texte, par pertinence décroissante, et le nombre total de
+ * sessions trouvées.
+ */
+public record SessionTextPage(List<Session> items, int total) {
+}
@@ -1,6 +1,7 @@
 package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repositorys.TableVersion;
 import com.openclassrooms.starterjwt.repositorys.TeacherRepository;
 
 import org.springframework.stereotype.Service;
@@ -23,4 +24,11 @@ public class TeacherService {
     public Optional<Teacher> findById(Long id) {
         return teacherRepository.findById(id);
     }
+
+    /**
+     * Version de la liste des professeurs, sans charger d'entité.
+     */
+    public TableVersion version() {
+        return teacherRepository.findVersion();
+    }
 }
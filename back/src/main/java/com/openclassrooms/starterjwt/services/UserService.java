@@ -1,12 +1,17 @@
 package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.dto.RegisterRequestDto;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import com.openclassrooms.starterjwt.security.UserDetailsCache;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,24 +22,30 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
     }
 
     /**
      * Crée un nouvel utilisateur à partir d’un DTO d’inscription.
      *
+     * Aucune vérification préalable de l’email : l’insertion est tentée directement et le
+     * doublon est détecté par la contrainte d’unicité de {@code users.email}. Une violation
+     * d’intégrité n’est traduite en conflit que si l’email est bien pris ; les autres (colonne
+     * vide, longueur…) sont relancées telles quelles.
+     *
      * @param request DTO contenant email, mot de passe, prénom et nom
-     * @throws IllegalStateException si l’email est déjà pris
+     * @return l’utilisateur enregistré, avec son identifiant
+     * @throws ConflictException               si l’email est déjà pris
+     * @throws DataIntegrityViolationException pour toute autre violation de contrainte
      */
-    public void createUser(RegisterRequestDto request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalStateException("Error: Email is already taken!");
-        }
-
+    public User createUser(RegisterRequestDto request) {
         User user = User.builder()
                 .email(request.getEmail())
                 .firstName(request.getFirstName())
@@ -43,7 +54,17 @@ public class UserService {
                 .admin(false)
                 .build();
 
-        userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.existsByEmailWithoutFlush(user.getEmail())) {
+                throw new ConflictException("Error: Email is already taken!");
+            }
+            throw e;
+        }
+        userDetailsCache.invalidate(saved.getEmail());
+        return saved;
     }
 
     /**
@@ -58,6 +79,7 @@ public class UserService {
      */
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userDetailsCache.invalidateById(id);
     }
 
     /**
@@ -67,6 +89,13 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Récupère les utilisateurs existants parmi {@code ids}, en une seule requête.
+     */
+    public List<User> findAllById(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     /**
      * Récupère un utilisateur par son email.
      */
@@ -9,8 +9,9 @@ import org.mapstruct.Named;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -30,18 +31,14 @@ public class MapperHelper {
     }
 
     @Named("mapUsers")
-    public List<User> mapUsers(List<Long> ids) {
-        if (ids == null) return Collections.emptyList();
-        return ids.stream()
-                .map(userService::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+    public Set<User> mapUsers(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return new HashSet<>();
+        return new HashSet<>(userService.findAllById(new HashSet<>(ids)));
     }
 
     @Named("mapUserIds")
-    public List<Long> mapUserIds(List<User> users) {
+    public List<Long> mapUserIds(Set<User> users) {
         if (users == null) return Collections.emptyList();
-        return users.stream().map(User::getId).collect(Collectors.toList());
+        return users.stream().map(User::getId).sorted().collect(Collectors.toList());
     }
 }
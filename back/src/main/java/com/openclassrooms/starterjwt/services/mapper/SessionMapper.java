@@ -11,6 +11,7 @@ public interface SessionMapper extends EntityMapper<SessionDto, Session> {
     // DTO -> Entity
     @Mapping(target = "teacher", source = "teacher_id", qualifiedByName = "mapTeacher")
     @Mapping(target = "users", source = "users", qualifiedByName = "mapUsers")
+    @Mapping(target = "booked", ignore = true)
     Session toEntity(SessionDto dto);
 
     // Entity -> DTO
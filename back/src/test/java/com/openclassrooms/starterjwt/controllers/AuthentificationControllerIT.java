@@ -12,6 +12,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -114,6 +115,29 @@ class AuthentificationControllerIT extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.admin").value(false));
     }
 
+    @Test
+    @DisplayName("POST /api/auth/login - should re-encode a legacy hash on successful login")
+    void testLogin_UpgradesLegacyHash() throws Exception {
+        userRepository.save(User.builder()
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .password(new BCryptPasswordEncoder(4).encode("password123"))
+                .admin(false)
+                .build());
+
+        LoginRequestDto loginDto = new LoginRequestDto("john@example.com", "password123");
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findByEmail("john@example.com").orElseThrow().getPassword();
+        assertThat(stored).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches("password123", stored)).isTrue();
+    }
+
     @Test
     @DisplayName("POST /api/auth/login - should fail with wrong password")
     void testLogin_WrongPassword() throws Exception {
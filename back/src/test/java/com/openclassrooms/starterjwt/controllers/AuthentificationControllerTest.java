@@ -3,6 +3,10 @@ package com.openclassrooms.starterjwt.controllers;
 import com.openclassrooms.starterjwt.dto.LoginRequestDto;
 import com.openclassrooms.starterjwt.dto.RegisterRequestDto;
 import com.openclassrooms.starterjwt.dto.TokenResponseDto;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
+import com.openclassrooms.starterjwt.exceptions.TooManyRequestsException;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.LoginThrottle;
 import com.openclassrooms.starterjwt.services.AuthenticationService;
 import com.openclassrooms.starterjwt.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,9 +14,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -35,12 +43,16 @@ class AuthentificationControllerTest  {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoginThrottle loginThrottle;
+
     @InjectMocks
     private AuthentificationController authController;
 
     private LoginRequestDto loginRequest;
     private RegisterRequestDto registerRequest;
     private TokenResponseDto tokenResponse;
+    private MockHttpServletRequest httpRequest;
 
     @BeforeEach
     void setUp() {
@@ -49,6 +61,8 @@ class AuthentificationControllerTest  {
         loginRequest = new LoginRequestDto("user@test.com", "password");
         registerRequest = new RegisterRequestDto("user@test.com", "password", "John", "Doe");
         tokenResponse = new TokenResponseDto("token", null, null, null, null, true);
+        httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("10.0.0.1");
     }
 
     @Test
@@ -58,7 +72,7 @@ class AuthentificationControllerTest  {
                 .thenReturn(auth);
         when(authenticationService.generateToken(auth)).thenReturn(tokenResponse);
 
-        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest);
+        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest, httpRequest);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(tokenResponse);
@@ -67,17 +81,74 @@ class AuthentificationControllerTest  {
     @Test
     void testLogin_Failure() {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenThrow(new RuntimeException("Bad credentials"));
+                .thenThrow(new BadCredentialsException("Bad credentials"));
 
-        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest);
+        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest, httpRequest);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
         assertThat(response.getBody().getToken()).isEqualTo("Invalid email or password");
+        verify(loginThrottle).recordFailure("user@test.com", "10.0.0.1");
+    }
+
+    @Test
+    void testLogin_InfrastructureError_ShouldNotCountAsFailure() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest, httpRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        verify(loginThrottle, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void testLogin_UserStoreError_ShouldNotCountAsFailure() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new InternalAuthenticationServiceException("Connection refused"));
+
+        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest, httpRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        verify(loginThrottle, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void testLogin_Throttled() {
+        doThrow(new TooManyRequestsException("locked", 60)).when(loginThrottle).checkAllowed("user@test.com", "10.0.0.1");
+
+        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest, httpRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        verify(authenticationManager, never()).authenticate(any());
+        verify(loginThrottle, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void testLogin_Saturated() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new TooManyRequestsException("saturated", 2));
+
+        ResponseEntity<TokenResponseDto> response = authController.login(loginRequest, httpRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        verify(authenticationService, never()).generateToken(any());
+    }
+
+    @Test
+    void testRegister_Saturated() {
+        when(userService.createUser(registerRequest)).thenThrow(new TooManyRequestsException("saturated", 1));
+
+        ResponseEntity<TokenResponseDto> response = authController.register(registerRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
     }
 
     @Test
     void testRegister_EmailTaken() {
-        when(userService.existsByEmail(registerRequest.getEmail())).thenReturn(true);
+        when(userService.createUser(registerRequest)).thenThrow(new ConflictException("Error: Email is already taken!"));
 
         ResponseEntity<TokenResponseDto> response = authController.register(registerRequest);
 
@@ -87,13 +158,17 @@ class AuthentificationControllerTest  {
 
     @Test
     void testRegister_Success() {
-        when(userService.existsByEmail(registerRequest.getEmail())).thenReturn(false);
-        when(authenticationService.authenticate(any(LoginRequestDto.class))).thenReturn(tokenResponse);
+        User user = User.builder().id(1L).email("user@test.com").firstName("John").lastName("Doe")
+                .password("encoded").admin(false).build();
+        when(userService.createUser(registerRequest)).thenReturn(user);
+        when(authenticationService.issueToken(user)).thenReturn(tokenResponse);
 
         ResponseEntity<TokenResponseDto> response = authController.register(registerRequest);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(tokenResponse);
-        verify(userService, times(1)).createUser(registerRequest);
+        verify(userService, never()).existsByEmail(any());
+        verify(authenticationService, never()).authenticate(any());
+        verify(authenticationManager, never()).authenticate(any());
     }
 }
@@ -7,7 +7,9 @@ import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repositorys.SessionRepository;
 import com.openclassrooms.starterjwt.repositorys.TeacherRepository;
 import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionService;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +17,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,6 +51,12 @@ class SessionControllerIT extends BaseIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SessionService sessionService;
+
     private Session session;
     private Teacher teacher;
     private String jwtToken;
@@ -130,7 +142,157 @@ class SessionControllerIT extends BaseIntegrationTest {
         mockMvc.perform(get("/api/session")
                         .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].name").value("Yoga Matin"));
+                .andExpect(jsonPath("$[0].name").value("Yoga Matin"))
+                .andExpect(jsonPath("$[0].teacher_id").value(teacher.getId()))
+                .andExpect(jsonPath("$[0].participantCount").value(0))
+                .andExpect(jsonPath("$[0].users").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/session?view=full - should return full sessions")
+    void testFindAll_FullView() throws Exception {
+        mockMvc.perform(get("/api/session").param("view", "full")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Yoga Matin"))
+                .andExpect(jsonPath("$[0].users").isArray());
+    }
+
+    @Test
+    @DisplayName("GET /api/session/search - should filter by teacher, period, name and participant")
+    void testSearch() throws Exception {
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+        session.setDate(LocalDateTime.of(2026, 4, 1, 9, 0));
+        session.setUsers(new HashSet<>(List.of(participant)));
+        sessionRepository.saveAndFlush(session);
+
+        mockMvc.perform(get("/api/session/search")
+                        .param("teacherId", teacher.getId().toString())
+                        .param("from", "2026-04-01T00:00:00")
+                        .param("to", "2026-04-02T00:00:00")
+                        .param("name", "matin")
+                        .param("participantId", participant.getId().toString())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(session.getId()))
+                .andExpect(jsonPath("$[0].users[0]").value(participant.getId()));
+
+        mockMvc.perform(get("/api/session/search")
+                        .param("from", "2026-04-02T00:00:00")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(get("/api/session/search")
+                        .param("from", "tomorrow")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/session/search/text - should find sessions created through the API")
+    void testTextSearch() throws Exception {
+        Map<String, Object> newSession = new HashMap<>();
+        newSession.put("name", "Vinyasa Flow");
+        newSession.put("description", "Enchaînements dynamiques synchronisés sur la respiration");
+        newSession.put("date", LocalDateTime.now().plusDays(1).toString());
+        newSession.put("teacher_id", teacher.getId());
+        mockMvc.perform(post("/api/session")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newSession)))
+                .andExpect(status().isCreated());
+        // La transaction de test n'est jamais validée : on joue ce qui est prévu après le commit.
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        mockMvc.perform(get("/api/session/search/text").param("q", "vinya enchainement")
+                        .header("Origin", "http://localhost:4200")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(header().string("Access-Control-Expose-Headers", containsString("X-Total-Count")))
+                .andExpect(jsonPath("$[0].name").value("Vinyasa Flow"));
+    }
+
+    @Test
+    @DisplayName("GET /api/session and /{id} - should answer 304 until a participant joins")
+    void testConditionalGet() throws Exception {
+        String listEtag = mockMvc.perform(get("/api/session")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        var single = mockMvc.perform(get("/api/session/{id}", session.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+        String etag = single.getHeader("ETag");
+
+        mockMvc.perform(get("/api/session")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/session/{id}", session.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/session/{id}", session.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Modified-Since", single.getHeader("Last-Modified")))
+                .andExpect(status().isNotModified());
+
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+        Thread.sleep(2);
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), participant.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/session")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].participantCount").value(1));
+        mockMvc.perform(get("/api/session/{id}", session.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0]").value(participant.getId()));
+    }
+
+    @Test
+    @DisplayName("GET /api/session - should page with an opaque cursor")
+    void testFindAll_Paginated() throws Exception {
+        Teacher otherTeacher = new Teacher();
+        otherTeacher.setFirstName("Jane");
+        otherTeacher.setLastName("Doe");
+        otherTeacher.setCreatedAt(LocalDateTime.now());
+        otherTeacher = teacherRepository.save(otherTeacher);
+
+        Session later = new Session();
+        later.setName("Yoga Soir");
+        later.setDescription("Séance du soir");
+        later.setDate(session.getDate().plusHours(8));
+        later.setTeacher(otherTeacher);
+        sessionRepository.save(later);
+
+        var firstPage = mockMvc.perform(get("/api/session").param("limit", "1")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Yoga Matin"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/session").param("limit", "1")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor"))
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Yoga Soir"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
     }
 
     // ---------- TEST CREATE ----------
@@ -166,6 +328,390 @@ void testCreate() throws Exception {
     assertThat(sessions).hasSize(2); // la session initiale + nouvelle
     assertThat(sessions.get(1).getName()).isEqualTo("Zumba Soir");
 }
+
+    @Test
+    @DisplayName("PUT /api/session/{id} - should refuse a roster beyond capacity and recount booked seats")
+    void testUpdate_ShouldKeepBookedWithinCapacity() throws Exception {
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+        User other = new User();
+        other.setEmail("other@example.com");
+        other.setFirstName("Other");
+        other.setLastName("User");
+        other.setPassword("password");
+        other.setAdmin(false);
+        other = userRepository.save(other);
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", "Yoga Matin");
+        body.put("description", "Séance matinale de yoga");
+        body.put("date", LocalDateTime.now().plusDays(1).toString());
+        body.put("teacher_id", teacher.getId());
+        body.put("users", List.of(participant.getId(), other.getId()));
+        body.put("capacity", 1);
+
+        mockMvc.perform(put("/api/session/" + session.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isConflict());
+
+        body.put("users", List.of(participant.getId()));
+        mockMvc.perform(put("/api/session/" + session.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(1));
+
+        entityManager.clear();
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getBooked()).isEqualTo(1);
+
+        mockMvc.perform(put("/api/session/999999")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isNotFound());
+    }
+
+    // ---------- TEST PARTICIPATE ----------
+
+    @Test
+    @DisplayName("POST/DELETE /api/session/{id}/participate/{userId} - should add then remove the participant")
+    void testParticipateAndLeave() throws Exception {
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), participant.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        assertThat(sessionRepository.findWithUsersById(session.getId()).orElseThrow().getUsers())
+                .extracting(User::getId).containsExactly(participant.getId());
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), participant.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().is5xxServerError());
+
+        mockMvc.perform(delete("/api/session/{id}/participate/{userId}", session.getId(), participant.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        assertThat(sessionRepository.findWithUsersById(session.getId()).orElseThrow().getUsers()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("DELETE/POST /api/session/{id}/participate/{userId} - should keep working on participants recorded before booked existed")
+    void testParticipateAndLeave_ShouldRecoverBookedFromParticipateRows() throws Exception {
+        User first = userRepository.findByEmail("test@example.com").orElseThrow();
+        User second = saveUser("second@example.com");
+        User newcomer = saveUser("newcomer@example.com");
+        LocalDateTime stale = LocalDateTime.of(2020, 1, 1, 0, 0);
+        // Base antérieure à la colonne : participants présents, compteur créé à 0.
+        for (User user : List.of(first, second)) {
+            entityManager.createNativeQuery("insert into participate (session_id, user_id) values (:sessionId, :userId)")
+                    .setParameter("sessionId", session.getId())
+                    .setParameter("userId", user.getId())
+                    .executeUpdate();
+        }
+        entityManager.createNativeQuery("update sessions set booked = 0, capacity = 2, updated_at = :stale where id = :id")
+                .setParameter("stale", stale)
+                .setParameter("id", session.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        mockMvc.perform(delete("/api/session/{id}/participate/{userId}", session.getId(), first.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        entityManager.clear();
+        Session left = sessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(left.getBooked()).isZero();
+        assertThat(left.getUpdatedAt()).isAfter(stale);
+
+        assertThat(sessionService.recountBooked()).isEqualTo(1);
+        entityManager.clear();
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getBooked()).isEqualTo(1);
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), newcomer.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), first.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isConflict());
+        entityManager.clear();
+        assertThat(sessionRepository.findWithUsersById(session.getId()).orElseThrow().getUsers())
+                .extracting(User::getId).containsExactlyInAnyOrder(second.getId(), newcomer.getId());
+        assertThat(sessionService.recountBooked()).isZero();
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("password");
+        user.setAdmin(false);
+        return userRepository.save(user);
+    }
+
+    @Test
+    @DisplayName("PUT /api/session/{id} - should give seats freed by a capacity increase to the waitlist first")
+    void testUpdate_ShouldPromoteWaitlist() throws Exception {
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+        User waiting = new User();
+        waiting.setEmail("waiting@example.com");
+        waiting.setFirstName("Waiting");
+        waiting.setLastName("User");
+        waiting.setPassword("password");
+        waiting.setAdmin(false);
+        waiting = userRepository.save(waiting);
+        User newcomer = new User();
+        newcomer.setEmail("newcomer@example.com");
+        newcomer.setFirstName("New");
+        newcomer.setLastName("Comer");
+        newcomer.setPassword("password");
+        newcomer.setAdmin(false);
+        newcomer = userRepository.save(newcomer);
+        session.setCapacity(1);
+        sessionRepository.saveAndFlush(session);
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), participant.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/session/{id}/waitlist/{userId}", session.getId(), waiting.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(1));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", "Yoga Matin");
+        body.put("description", "Séance matinale de yoga");
+        body.put("date", LocalDateTime.now().plusDays(1).toString());
+        body.put("teacher_id", teacher.getId());
+        body.put("users", List.of(participant.getId()));
+        body.put("capacity", 2);
+        mockMvc.perform(put("/api/session/" + session.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(2))
+                .andExpect(jsonPath("$.users.length()").value(2));
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), newcomer.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isConflict());
+        entityManager.clear();
+        assertThat(sessionRepository.findWithUsersById(session.getId()).orElseThrow().getUsers())
+                .extracting(User::getId).containsExactlyInAnyOrder(participant.getId(), waiting.getId());
+    }
+
+    @Test
+    @DisplayName("POST /api/session/participate - should add pairs in bulk and report each outcome")
+    void testParticipateAll() throws Exception {
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+        User other = new User();
+        other.setEmail("other@example.com");
+        other.setFirstName("Other");
+        other.setLastName("User");
+        other.setPassword("password");
+        other.setAdmin(false);
+        other = userRepository.save(other);
+        session.setCapacity(1);
+        sessionRepository.saveAndFlush(session);
+
+        List<Map<String, Long>> pairs = List.of(
+                Map.of("sessionId", session.getId(), "userId", participant.getId()),
+                Map.of("sessionId", session.getId(), "userId", participant.getId()),
+                Map.of("sessionId", session.getId(), "userId", other.getId()),
+                Map.of("sessionId", 999L, "userId", participant.getId()));
+
+        mockMvc.perform(post("/api/session/participate")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pairs)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("ADDED"))
+                .andExpect(jsonPath("$[1].outcome").value("DUPLICATE"))
+                .andExpect(jsonPath("$[2].outcome").value("FULL"))
+                .andExpect(jsonPath("$[3].outcome").value("NOT_FOUND"));
+
+        entityManager.clear();
+        Session stored = sessionRepository.findWithUsersById(session.getId()).orElseThrow();
+        assertThat(stored.getUsers()).extracting(User::getId).containsExactly(participant.getId());
+        assertThat(stored.getBooked()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /api/session/{id}/participants - should page participants and count them in the summary view")
+    void testParticipants() throws Exception {
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+        User other = new User();
+        other.setEmail("other@example.com");
+        other.setFirstName("Other");
+        other.setLastName("User");
+        other.setPassword("password");
+        other.setAdmin(false);
+        other = userRepository.save(other);
+        session.setUsers(new HashSet<>(List.of(participant, other)));
+        sessionRepository.saveAndFlush(session);
+
+        String cursor = mockMvc.perform(get("/api/session/" + session.getId() + "/participants")
+                        .param("limit", "1")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(participant.getId()))
+                .andExpect(jsonPath("$[0].firstName").value("Test"))
+                .andExpect(jsonPath("$[0].lastName").value("User"))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/session/" + session.getId() + "/participants")
+                        .param("limit", "1")
+                        .param("cursor", cursor)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(other.getId()))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/session/" + session.getId())
+                        .param("view", "summary")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participantCount").value(2))
+                .andExpect(jsonPath("$.users").doesNotExist());
+
+        mockMvc.perform(get("/api/session/999999/participants")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/session/import - should insert valid CSV rows and report the others")
+    void testImportCsv() throws Exception {
+        String csv = "name,date,teacher_id,description,capacity\n"
+                + "Yin,2026-01-05T09:00:00,%d,\"Calme, lent\",12\n"
+                + "Hatha,2026-01-06T10:00:00,999,Sans prof,\n"
+                + ",2026-01-07T10:00:00,%d,Sans nom,\n"
+                + "Vinyasa,2026-01-08,%d,Dynamique,\n";
+
+        mockMvc.perform(post("/api/session/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("text/csv")
+                        .content(csv.formatted(teacher.getId(), teacher.getId(), teacher.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[1].row").value(3));
+
+        entityManager.clear();
+        List<Session> sessions = sessionRepository.findAll();
+        assertThat(sessions).extracting(Session::getName).containsExactlyInAnyOrder("Yoga Matin", "Yin", "Vinyasa");
+        Session yin = sessions.stream().filter(s -> s.getName().equals("Yin")).findFirst().orElseThrow();
+        assertThat(yin.getTeacher().getId()).isEqualTo(teacher.getId());
+        assertThat(yin.getCapacity()).isEqualTo(12);
+        assertThat(yin.getDescription()).isEqualTo("Calme, lent");
+        assertThat(yin.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("POST /api/session/import - should reject a JSON document that is not an array")
+    void testImportJson_Malformed() throws Exception {
+        mockMvc.perform(post("/api/session/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Yin\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ---------- TEST OCCUPANCY STREAM ----------
+
+    @Test
+    @DisplayName("GET /api/session/occupancy - should open an event stream starting with the current occupancy")
+    void testOccupancyStream() throws Exception {
+        session.setCapacity(12);
+        session.setBooked(3);
+        sessionRepository.saveAndFlush(session);
+
+        var result = mockMvc.perform(get("/api/session/occupancy")
+                        .param("ids", session.getId() + ",999")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains("data:") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString())
+                .contains("event:occupancy")
+                .contains("\"sessionId\":" + session.getId())
+                .contains("\"booked\":3")
+                .contains("\"capacity\":12");
+
+        mockMvc.perform(get("/api/session/occupancy")
+                        .param("ids", "999")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    // ---------- TEST CHANGES ----------
+
+    @Test
+    @DisplayName("GET /api/session/changes - should return only what changed since the given date")
+    void testChanges() throws Exception {
+        LocalDateTime since = LocalDateTime.now();
+        User participant = userRepository.findByEmail("test@example.com").orElseThrow();
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", session.getId(), participant.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        Long created = createSession("Zumba Soir");
+        Long removed = createSession("Annulée");
+        mockMvc.perform(delete("/api/session/{id}", removed)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/session/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("text/csv")
+                        .content("name,date,teacher_id,description\nYin,2026-01-05T09:00:00,%d,Calme\n".formatted(teacher.getId())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/session/changes")
+                        .param("since", since.toString())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.until").isNotEmpty())
+                .andExpect(jsonPath("$.sessions.length()").value(2))
+                .andExpect(jsonPath("$.sessions[0].name").value("Yin"))
+                .andExpect(jsonPath("$.sessions[1].id").value(created))
+                .andExpect(jsonPath("$.deleted.length()").value(1))
+                .andExpect(jsonPath("$.deleted[0]").value(removed))
+                .andExpect(jsonPath("$.participations.length()").value(1))
+                .andExpect(jsonPath("$.participations[0].sessionId").value(session.getId()))
+                .andExpect(jsonPath("$.participations[0].userId").value(participant.getId()))
+                .andExpect(jsonPath("$.participations[0].participating").value(true));
+
+        mockMvc.perform(get("/api/session/changes")
+                        .param("since", since.minusYears(1).toString())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isGone());
+    }
+
+    private Long createSession(String name) throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", name);
+        body.put("description", "Cours du soir");
+        body.put("date", LocalDateTime.now().plusDays(1).toString());
+        body.put("teacher_id", teacher.getId());
+        String json = mockMvc.perform(post("/api/session")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
     // ---------- TEST DELETE ----------
 
     @Test
@@ -1,7 +1,26 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.dto.ParticipantDto;
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import com.openclassrooms.starterjwt.dto.ParticipationResultDto;
+import com.openclassrooms.starterjwt.dto.SessionChangesDto;
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionImportResultDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.dto.WaitlistPositionDto;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
+import com.openclassrooms.starterjwt.exceptions.GoneException;
+import com.openclassrooms.starterjwt.exceptions.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionChange;
+import com.openclassrooms.starterjwt.repositorys.TableVersion;
+import com.openclassrooms.starterjwt.services.SessionChanges;
+import com.openclassrooms.starterjwt.services.SessionImportService;
+import com.openclassrooms.starterjwt.services.SessionDtoCache;
+import com.openclassrooms.starterjwt.services.SessionOccupancyBroadcaster;
+import com.openclassrooms.starterjwt.services.SessionPage;
+import com.openclassrooms.starterjwt.services.SessionSearch;
+import com.openclassrooms.starterjwt.services.SessionTextPage;
 import com.openclassrooms.starterjwt.services.SessionService;
 import com.openclassrooms.starterjwt.services.mapper.SessionMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +30,17 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -25,11 +53,23 @@ class SessionControllerTest {
     @Mock
     private SessionMapper sessionMapper;
 
+    @Mock
+    private SessionImportService sessionImportService;
+
+    @Mock
+    private SessionOccupancyBroadcaster sessionOccupancyBroadcaster;
+
+    @Mock
+    private SessionDtoCache sessionDtoCache;
+
     @InjectMocks
     private SessionController sessionController;
 
     private Session session;
     private SessionDto sessionDto;
+    private MockHttpServletRequest servletRequest;
+    private MockHttpServletResponse servletResponse;
+    private ServletWebRequest webRequest;
 
     @BeforeEach
     void setUp() {
@@ -41,6 +81,173 @@ class SessionControllerTest {
         sessionDto = new SessionDto();
         sessionDto.setId(1L);
         sessionDto.setName("Yoga Matin");
+
+        servletRequest = new MockHttpServletRequest("GET", "/api/session");
+        servletResponse = new MockHttpServletResponse();
+        webRequest = new ServletWebRequest(servletRequest, servletResponse);
+        when(sessionService.version()).thenReturn(new TableVersion(1, LocalDateTime.of(2026, 1, 1, 9, 0)));
+        when(sessionService.version(1L)).thenReturn(new TableVersion(1, LocalDateTime.of(2026, 1, 1, 9, 0)));
+    }
+
+    @Test
+    void testFindById_NotModified() {
+        servletRequest.addHeader("If-None-Match",
+                ConditionalGet.etag("session", new TableVersion(1, LocalDateTime.of(2026, 1, 1, 9, 0))));
+
+        assertThat(sessionController.findById("1", "full", webRequest)).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+        verify(sessionService, never()).getById(any());
+        verifyNoInteractions(sessionMapper);
+    }
+
+    @Test
+    void testFindById_ShouldSendValidators() {
+        when(sessionService.getById(1L)).thenReturn(session);
+        when(sessionMapper.toDto(session)).thenReturn(sessionDto);
+
+        sessionController.findById("1", "full", webRequest);
+
+        assertThat(servletResponse.getHeader("ETag")).startsWith("W/\"session-");
+        assertThat(servletResponse.getHeader("Last-Modified")).isNotNull();
+    }
+
+    @Test
+    void testFindById_ShouldServeCachedDto_WhenCacheEnabled() {
+        when(sessionDtoCache.isEnabled()).thenReturn(true);
+        when(sessionDtoCache.get(eq(1L), any())).thenReturn(sessionDto);
+
+        ResponseEntity<?> response = sessionController.findById("1", "full", webRequest);
+
+        assertThat(response.getBody()).isEqualTo(sessionDto);
+        verify(sessionService, never()).getById(any());
+        verify(sessionService, never()).version(anyLong());
+    }
+
+    @Test
+    void testFindById_ShouldLoadThroughCache_OnMiss() {
+        when(sessionDtoCache.isEnabled()).thenReturn(true);
+        when(sessionDtoCache.get(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, SessionDto>>getArgument(1).apply(1L));
+        when(sessionService.getById(1L)).thenReturn(session);
+        when(sessionMapper.toDto(session)).thenReturn(sessionDto);
+
+        ResponseEntity<?> response = sessionController.findById("1", "full", webRequest);
+
+        assertThat(response.getBody()).isEqualTo(sessionDto);
+    }
+
+    @Test
+    void testFindById_NotModified_FromCachedVersion() {
+        sessionDto.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 9, 0));
+        when(sessionDtoCache.isEnabled()).thenReturn(true);
+        when(sessionDtoCache.get(eq(1L), any())).thenReturn(sessionDto);
+        servletRequest.addHeader("If-None-Match",
+                ConditionalGet.etag("session", new TableVersion(1, LocalDateTime.of(2026, 1, 2, 9, 0))));
+
+        assertThat(sessionController.findById("1", "full", webRequest)).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+        verify(sessionService, never()).version(anyLong());
+    }
+
+    @Test
+    void testFindById_NotFound_WhenCacheEnabled() {
+        when(sessionDtoCache.isEnabled()).thenReturn(true);
+
+        ResponseEntity<?> response = sessionController.findById("1", "full", webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testFindById_ShouldReturnSummary_WhenViewIsSummary() {
+        SessionSummaryDto summary = new SessionSummaryDto(1L, "Yoga Matin", null, "desc", 2L, 120);
+        when(sessionService.getSummaryById(1L)).thenReturn(summary);
+
+        ResponseEntity<?> response = sessionController.findById("1", "summary", webRequest);
+
+        assertThat(response.getBody()).isEqualTo(summary);
+        assertThat(servletResponse.getHeader("ETag")).startsWith("W/\"session-summary-");
+        verify(sessionService, never()).getById(any());
+        verifyNoInteractions(sessionDtoCache, sessionMapper);
+    }
+
+    @Test
+    void testFindById_ShouldReturnNotFound_WhenSummaryMissing() {
+        ResponseEntity<?> response = sessionController.findById("1", "summary", webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testFindById_ShouldRejectUnknownView() {
+        ResponseEntity<?> response = sessionController.findById("1", "ids", webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(sessionService);
+    }
+
+    @Test
+    void testFindParticipants_ShouldReturnPageAndNextCursor() {
+        List<ParticipantDto> participants = List.of(new ParticipantDto(3L, "Ann", "A"));
+        when(sessionService.findParticipants(1L, null, 50)).thenReturn(new SessionPage<>(participants, "3"));
+
+        ResponseEntity<?> response = sessionController.findParticipants("1", null, null, webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(participants);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("3");
+    }
+
+    @Test
+    void testFindParticipants_ShouldCapLimit() {
+        when(sessionService.findParticipants(1L, "3", 200)).thenReturn(new SessionPage<>(List.of(), null));
+
+        ResponseEntity<?> response = sessionController.findParticipants("1", 1000, "3", webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+    }
+
+    @Test
+    void testFindParticipants_NotModified() {
+        servletRequest.addHeader("If-None-Match",
+                ConditionalGet.etag("session-participants", new TableVersion(1, LocalDateTime.of(2026, 1, 1, 9, 0))));
+
+        assertThat(sessionController.findParticipants("1", null, null, webRequest)).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+        verify(sessionService, never()).findParticipants(any(), any(), anyInt());
+    }
+
+    @Test
+    void testFindParticipants_NotFound() {
+        when(sessionService.version(1L)).thenReturn(new TableVersion(0, null));
+
+        ResponseEntity<?> response = sessionController.findParticipants("1", null, null, webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(sessionService, never()).findParticipants(any(), any(), anyInt());
+    }
+
+    @Test
+    void testFindParticipants_BadRequest() {
+        assertThat(sessionController.findParticipants("abc", null, null, webRequest).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(sessionController.findParticipants("1", 0, null, webRequest).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        when(sessionService.findParticipants(1L, "abc", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        assertThat(sessionController.findParticipants("1", null, "abc", webRequest).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testFindAll_NotModified() {
+        servletRequest.addHeader("If-None-Match",
+                ConditionalGet.etag("sessions", new TableVersion(1, LocalDateTime.of(2026, 1, 1, 9, 0))));
+
+        assertThat(sessionController.findAll(null, null, "full", webRequest)).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+        verify(sessionService, never()).findPage(any(), anyInt());
+        verifyNoInteractions(sessionMapper);
     }
 
     @Test
@@ -48,7 +255,7 @@ class SessionControllerTest {
         when(sessionService.getById(1L)).thenReturn(session);
         when(sessionMapper.toDto(session)).thenReturn(sessionDto);
 
-        ResponseEntity<?> response = sessionController.findById("1");
+        ResponseEntity<?> response = sessionController.findById("1", "full", webRequest);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(sessionDto);
@@ -57,36 +264,162 @@ class SessionControllerTest {
     @Test
     void testFindById_NotFound() {
         when(sessionService.getById(1L)).thenReturn(null);
-        ResponseEntity<?> response = sessionController.findById("1");
+        ResponseEntity<?> response = sessionController.findById("1", "full", webRequest);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @Test
     void testFindById_BadRequest() {
-        ResponseEntity<?> response = sessionController.findById("abc");
+        ResponseEntity<?> response = sessionController.findById("abc", "full", webRequest);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
     @Test
     void testFindById_InternalError() {
         when(sessionService.getById(1L)).thenThrow(new RuntimeException("DB error"));
-        ResponseEntity<?> response = sessionController.findById("1");
+        ResponseEntity<?> response = sessionController.findById("1", "full", webRequest);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @Test
-    void testFindAll_Success() {
-        when(sessionService.findAll()).thenReturn(List.of(session));
+    void testFindAll_ShouldReturnSummariesByDefault() {
+        SessionSummaryDto summary = new SessionSummaryDto(1L, "Yoga", null, "desc", 2L, 3);
+        when(sessionService.findSummaryPage(null, 50)).thenReturn(new SessionPage<>(List.of(summary), null));
+
+        ResponseEntity<?> response = sessionController.findAll(null, null, "summary", webRequest);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(List.of(summary));
+        assertThat(response.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+        verifyNoInteractions(sessionMapper);
+    }
+
+    @Test
+    void testFindAll_FullView() {
+        when(sessionService.findPage(null, 50)).thenReturn(new SessionPage<>(List.of(session), null));
+        when(sessionMapper.toDto(List.of(session))).thenReturn(List.of(sessionDto));
+
+        ResponseEntity<?> response = sessionController.findAll(null, null, "full", webRequest);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(List.of(sessionDto));
+    }
+
+    @Test
+    void testSearch_ShouldPassFiltersAndExposeNextCursor() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        SessionSearch search = new SessionSearch(from, null, 2L, "yin", true, 5L);
+        when(sessionService.search(search, null, 50)).thenReturn(new SessionPage<>(List.of(session), "next"));
+        when(sessionMapper.toDto(List.of(session))).thenReturn(List.of(sessionDto));
+
+        ResponseEntity<?> response = sessionController.search(from, null, 2L, "yin", true, 5L, null, null);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(List.of(sessionDto));
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next");
+    }
+
+    @Test
+    void testSearch_InvalidCursorOrLimit() {
+        SessionSearch search = new SessionSearch(null, null, null, null, false, null);
+        when(sessionService.search(search, "bad", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        assertThat(sessionController.search(null, null, null, null, false, null, null, "bad").getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(sessionController.search(null, null, null, null, false, null, 0, null).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testTextSearch_ShouldExposeTotalCount() {
+        when(sessionService.textSearch("yoga", 1, 50)).thenReturn(new SessionTextPage(List.of(session), 51));
+        when(sessionMapper.toDto(List.of(session))).thenReturn(List.of(sessionDto));
+
+        ResponseEntity<?> response = sessionController.textSearch("yoga", 1, null);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(List.of(sessionDto));
+        assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("51");
+    }
+
+    @Test
+    void testChanges_ShouldMapSessionsTombstonesAndParticipations() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime until = LocalDateTime.now();
+        SessionChange left = SessionChange.builder().sessionId(5L).userId(10L).type(SessionChange.Type.LEFT).build();
+        when(sessionService.changesSince(since)).thenReturn(new SessionChanges(until, List.of(session), List.of(4L), List.of(left)));
         when(sessionMapper.toDto(List.of(session))).thenReturn(List.of(sessionDto));
 
-        ResponseEntity<?> response = sessionController.findAll();
+        ResponseEntity<?> response = sessionController.changes(since);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new SessionChangesDto(until, List.of(sessionDto), List.of(4L),
+                List.of(new SessionChangesDto.ParticipationChange(5L, 10L, false))));
+    }
+
+    @Test
+    void testChanges_Gone_WhenBeyondRetention() {
+        LocalDateTime since = LocalDateTime.now().minusYears(1);
+        when(sessionService.changesSince(since)).thenThrow(new GoneException("gone"));
+
+        assertThat(sessionController.changes(since).getStatusCode()).isEqualTo(HttpStatus.GONE);
+    }
+
+    @Test
+    void testOccupancy_ShouldReturnEmitter() {
+        SseEmitter emitter = new SseEmitter();
+        when(sessionOccupancyBroadcaster.subscribe(List.of(1L, 2L))).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = sessionController.occupancy(List.of(1L, 2L));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(emitter);
+    }
+
+    @Test
+    void testOccupancy_InvalidIds() {
+        assertThat(sessionController.occupancy(List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(sessionController.occupancy(Collections.nCopies(51, 1L)).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(sessionOccupancyBroadcaster);
+    }
+
+    @Test
+    void testOccupancy_NotFoundOrSaturated() {
+        when(sessionOccupancyBroadcaster.subscribe(List.of(9L))).thenThrow(new NotFoundException());
+        when(sessionOccupancyBroadcaster.subscribe(List.of(1L))).thenThrow(new IllegalStateException("Too many occupancy subscribers"));
+
+        assertThat(sessionController.occupancy(List.of(9L)).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(sessionController.occupancy(List.of(1L)).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void testTextSearch_InvalidPaging() {
+        assertThat(sessionController.textSearch("yoga", -1, null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(sessionController.textSearch("yoga", 0, 0).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(sessionService);
+    }
+
+    @Test
+    void testFindAll_ShouldExposeNextCursorAndCapLimit() {
+        when(sessionService.findSummaryPage("abc", 200)).thenReturn(new SessionPage<>(List.of(), "next"));
+
+        ResponseEntity<?> response = sessionController.findAll(10_000, "abc", "summary", webRequest);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next");
+    }
+
+    @Test
+    void testFindAll_InvalidCursor() {
+        when(sessionService.findSummaryPage("bad", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        ResponseEntity<?> response = sessionController.findAll(null, "bad", "summary", webRequest);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testFindAll_InvalidLimitOrView() {
+        assertThat(sessionController.findAll(0, null, "summary", webRequest).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(sessionController.findAll(null, null, "compact", webRequest).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(sessionService);
     }
 
     @Test
     void testFindAll_Error() {
-        when(sessionService.findAll()).thenThrow(new RuntimeException("DB error"));
-        ResponseEntity<?> response = sessionController.findAll();
+        when(sessionService.findSummaryPage(null, 50)).thenThrow(new RuntimeException("DB error"));
+        ResponseEntity<?> response = sessionController.findAll(null, null, "summary", webRequest);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
@@ -126,6 +459,16 @@ class SessionControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void testUpdate_Conflict() {
+        when(sessionMapper.toEntity(sessionDto)).thenReturn(session);
+        when(sessionService.update(1L, session)).thenThrow(new ConflictException("Participants exceed capacity"));
+
+        ResponseEntity<?> response = sessionController.update("1", sessionDto);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo("Participants exceed capacity");
+    }
+
     @Test
     void testUpdate_BadRequest() {
         ResponseEntity<?> response = sessionController.update("abc", sessionDto);
@@ -188,6 +531,54 @@ class SessionControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @Test
+    void testParticipate_SessionFull() {
+        doThrow(new ConflictException("Session is full")).when(sessionService).participate(1L, 2L);
+        ResponseEntity<?> response = sessionController.participate("1", "2");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo("Session is full");
+    }
+
+    @Test
+    void testParticipateAll_Success() {
+        List<ParticipationRequestDto> pairs = List.of(new ParticipationRequestDto(1L, 2L));
+        List<ParticipationResultDto> results = List.of(new ParticipationResultDto(1L, 2L, ParticipationResultDto.Outcome.ADDED));
+        when(sessionService.participateAll(pairs)).thenReturn(results);
+        ResponseEntity<?> response = sessionController.participateAll(pairs);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+    }
+
+    @Test
+    void testParticipateAll_RejectsEmptyOrOversizedBatch() {
+        assertThat(sessionController.participateAll(List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        List<ParticipationRequestDto> tooMany = Collections.nCopies(SessionController.MAX_BULK_PAIRS + 1, new ParticipationRequestDto(1L, 2L));
+        assertThat(sessionController.participateAll(tooMany).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(sessionService, never()).participateAll(any());
+    }
+
+    @Test
+    void testImportSessions_DispatchesOnContentType() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        SessionImportResultDto result = new SessionImportResultDto(3, 0, List.of());
+        when(sessionImportService.importCsv(body)).thenReturn(result);
+        when(sessionImportService.importJson(body)).thenReturn(result);
+
+        assertThat(sessionController.importSessions("text/csv; charset=UTF-8", body).getBody()).isEqualTo(result);
+        verify(sessionImportService).importCsv(body);
+        assertThat(sessionController.importSessions("application/json", body).getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(sessionImportService).importJson(body);
+    }
+
+    @Test
+    void testImportSessions_MalformedFile() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(sessionImportService.importCsv(body)).thenThrow(new IllegalArgumentException("Missing CSV header"));
+        ResponseEntity<?> response = sessionController.importSessions("text/csv", body);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Missing CSV header");
+    }
+
     @Test
     void testNoLongerParticipate_Success() {
         ResponseEntity<?> response = sessionController.noLongerParticipate("1", "2");
@@ -207,4 +598,48 @@ class SessionControllerTest {
         ResponseEntity<?> response = sessionController.noLongerParticipate("1", "2");
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    @Test
+    void testJoinWaitlist_Queued() {
+        when(sessionService.joinWaitlist(1L, 2L)).thenReturn(3L);
+        ResponseEntity<?> response = sessionController.joinWaitlist("1", "2");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new WaitlistPositionDto(1L, 2L, false, 3L));
+    }
+
+    @Test
+    void testJoinWaitlist_Booked() {
+        when(sessionService.joinWaitlist(1L, 2L)).thenReturn(0L);
+        ResponseEntity<?> response = sessionController.joinWaitlist("1", "2");
+        assertThat(response.getBody()).isEqualTo(new WaitlistPositionDto(1L, 2L, true, 0L));
+    }
+
+    @Test
+    void testJoinWaitlist_NotFound() {
+        when(sessionService.joinWaitlist(1L, 2L)).thenThrow(new NotFoundException());
+        ResponseEntity<?> response = sessionController.joinWaitlist("1", "2");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testWaitlistPosition_Success() {
+        when(sessionService.waitlistPosition(1L, 2L)).thenReturn(4L);
+        ResponseEntity<?> response = sessionController.waitlistPosition("1", "2");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new WaitlistPositionDto(1L, 2L, false, 4L));
+    }
+
+    @Test
+    void testWaitlistPosition_NotQueued() {
+        when(sessionService.waitlistPosition(1L, 2L)).thenThrow(new NotFoundException());
+        ResponseEntity<?> response = sessionController.waitlistPosition("1", "2");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testLeaveWaitlist_Success() {
+        ResponseEntity<?> response = sessionController.leaveWaitlist("1", "2");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(sessionService, times(1)).leaveWaitlist(1L, 2L);
+    }
 }
@@ -130,4 +130,27 @@ class TeacherControllerIT extends BaseIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("John", "Jane")));
     }
+
+    @Test
+    @DisplayName("GET /api/teacher → doit retourner 304 si la liste n'a pas changé")
+    void testFindAll_NotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/teacher")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/teacher")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        teacherRepository.saveAndFlush(new Teacher(null, "Doe", "Jim", null, null));
+        mockMvc.perform(get("/api/teacher")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
 }
@@ -2,6 +2,7 @@ package com.openclassrooms.starterjwt.controllers;
 
 import com.openclassrooms.starterjwt.dto.TeacherDto;
 import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repositorys.TableVersion;
 import com.openclassrooms.starterjwt.services.TeacherService;
 import com.openclassrooms.starterjwt.services.mapper.TeacherMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,7 +12,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +36,10 @@ class TeacherControllerTest {
 
     private Teacher teacher;
     private TeacherDto teacherDto;
+    private final TableVersion version = new TableVersion(2, LocalDateTime.of(2026, 1, 1, 9, 0));
+    private MockHttpServletRequest servletRequest;
+    private MockHttpServletResponse servletResponse;
+    private ServletWebRequest webRequest;
 
     @BeforeEach
     void setUp() {
@@ -45,6 +54,11 @@ class TeacherControllerTest {
         teacherDto.setId(1L);
         teacherDto.setFirstName("John");
         teacherDto.setLastName("Doe");
+
+        servletRequest = new MockHttpServletRequest("GET", "/api/teacher");
+        servletResponse = new MockHttpServletResponse();
+        webRequest = new ServletWebRequest(servletRequest, servletResponse);
+        when(teacherService.version()).thenReturn(version);
     }
 
     @Test
@@ -83,9 +97,20 @@ class TeacherControllerTest {
         when(teacherService.findAll()).thenReturn(teachers);
         when(teacherMapper.toDto(teachers)).thenReturn(teacherDtos);
 
-        ResponseEntity<?> response = teacherController.findAll();
+        ResponseEntity<?> response = teacherController.findAll(webRequest);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(teacherDtos);
+        assertThat(servletResponse.getHeader("ETag")).isEqualTo(ConditionalGet.etag("teachers", version));
+    }
+
+    @Test
+    void testFindAll_NotModified() {
+        servletRequest.addHeader("If-None-Match", ConditionalGet.etag("teachers", version));
+
+        assertThat(teacherController.findAll(webRequest)).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+        verify(teacherService, never()).findAll();
+        verifyNoInteractions(teacherMapper);
     }
 }
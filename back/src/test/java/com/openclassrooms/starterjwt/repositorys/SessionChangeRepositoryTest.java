@@ -0,0 +1,50 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.models.SessionChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SessionChangeRepositoryTest {
+
+    @Autowired
+    private SessionChangeRepository sessionChangeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    @Test
+    void testFindSince_ShouldReturnEntriesFromDateInclusiveInWriteOrder() {
+        log(1L, SessionChange.Type.SAVED, now.minusDays(2));
+        SessionChange saved = log(2L, SessionChange.Type.SAVED, now);
+        SessionChange deleted = log(1L, SessionChange.Type.DELETED, now.minusHours(1));
+
+        assertThat(sessionChangeRepository.findSince(now.minusHours(1))).containsExactly(saved, deleted);
+    }
+
+    @Test
+    void testDeleteOlderThan_ShouldKeepRecentEntries() {
+        log(1L, SessionChange.Type.SAVED, now.minusDays(40));
+        log(1L, SessionChange.Type.DELETED, now.minusDays(31));
+        SessionChange recent = log(2L, SessionChange.Type.SAVED, now.minusDays(1));
+
+        assertThat(sessionChangeRepository.deleteOlderThan(now.minusDays(30))).isEqualTo(2);
+        entityManager.clear();
+        assertThat(sessionChangeRepository.findAll()).containsExactly(recent);
+    }
+
+    private SessionChange log(Long sessionId, SessionChange.Type type, LocalDateTime changedAt) {
+        return entityManager.persist(SessionChange.builder().sessionId(sessionId).type(type).changedAt(changedAt).build());
+    }
+}
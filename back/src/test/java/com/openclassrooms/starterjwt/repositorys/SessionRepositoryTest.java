@@ -1,13 +1,19 @@
 package com.openclassrooms.starterjwt.repositorys;
 
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,9 @@ class SessionRepositoryTest {
     @Autowired
     private SessionRepository sessionRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void testSaveAndFindById() {
         Session session = new Session();
@@ -56,4 +65,104 @@ class SessionRepositoryTest {
         sessionRepository.deleteById(s1.getId());
         assertThat(sessionRepository.findAll()).hasSize(1);
     }
+
+    @Test
+    void testKeysetPages_ShouldWalkByDateThenId() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+        Session late = sessionRepository.save(session("Late", base.plusDays(1)));
+        Session tieA = sessionRepository.save(session("Tie A", base));
+        Session tieB = sessionRepository.save(session("Tie B", base));
+        Session early = sessionRepository.save(session("Early", base.minusDays(1)));
+
+        List<Session> first = sessionRepository.findFirstPage(Limit.of(2));
+        Session last = first.get(1);
+        List<Session> second = sessionRepository.findPageAfter(last.getDate(), last.getId(), Limit.of(2));
+
+        assertThat(first).extracting(Session::getId).containsExactly(early.getId(), tieA.getId());
+        assertThat(second).extracting(Session::getId).containsExactly(tieB.getId(), late.getId());
+    }
+
+    @Test
+    void testSummaryPage_ShouldCountParticipantsWithoutLoadingThem() {
+        User alice = entityManager.persist(user("alice@test.com"));
+        User bob = entityManager.persist(user("bob@test.com"));
+        Teacher teacher = entityManager.persist(Teacher.builder().firstName("Jane").lastName("Doe").build());
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+        Session full = session("Full", base);
+        full.setTeacher(teacher);
+        full.setUsers(new HashSet<>(List.of(alice, bob)));
+        sessionRepository.save(full);
+        Session empty = sessionRepository.save(session("Empty", base.plusHours(1)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<SessionSummaryDto> first = sessionRepository.findFirstSummaryPage(Limit.of(1));
+        List<SessionSummaryDto> second = sessionRepository.findSummaryPageAfter(base, full.getId(), Limit.of(1));
+
+        assertThat(first).containsExactly(new SessionSummaryDto(full.getId(), "Full", base, "Full", teacher.getId(), 2));
+        assertThat(second).containsExactly(new SessionSummaryDto(empty.getId(), "Empty", base.plusHours(1), "Empty", null, 0));
+    }
+
+    @Test
+    void testFindSummaryById_ShouldCountParticipants() {
+        User alice = entityManager.persist(user("alice@test.com"));
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+        Session session = session("Solo", base);
+        session.setUsers(new HashSet<>(List.of(alice)));
+        sessionRepository.save(session);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(sessionRepository.findSummaryById(session.getId()))
+                .contains(new SessionSummaryDto(session.getId(), "Solo", base, "Solo", null, 1));
+        assertThat(sessionRepository.findSummaryById(session.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    void testUsers_ShouldLoadLazilyUnlessFetchedExplicitly() {
+        User alice = entityManager.persist(user("alice@test.com"));
+        Session session = session("Roster", LocalDateTime.of(2026, 1, 1, 9, 0));
+        session.setUsers(new HashSet<>(List.of(alice)));
+        Long id = sessionRepository.save(session).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Session plain = sessionRepository.findById(id).orElseThrow();
+        assertThat(Hibernate.isInitialized(plain.getUsers())).isFalse();
+        entityManager.clear();
+
+        Session withUsers = sessionRepository.findWithUsersById(id).orElseThrow();
+        assertThat(Hibernate.isInitialized(withUsers.getUsers())).isTrue();
+        assertThat(withUsers.getUsers()).extracting(User::getEmail).containsExactly("alice@test.com");
+    }
+
+    @Test
+    void testAddAndRemoveParticipant_ShouldWriteSingleJoinRow() {
+        User alice = entityManager.persist(user("alice@test.com"));
+        Long id = sessionRepository.save(session("Roster", LocalDateTime.of(2026, 1, 1, 9, 0))).getId();
+        entityManager.flush();
+
+        assertThat(sessionRepository.addParticipant(id, alice.getId())).isEqualTo(1);
+        assertThat(sessionRepository.addParticipant(id, alice.getId())).isZero();
+        assertThat(sessionRepository.addParticipant(id, -1L)).isZero();
+        assertThat(sessionRepository.addParticipant(-1L, alice.getId())).isZero();
+        assertThat(sessionRepository.findWithUsersById(id).orElseThrow().getUsers())
+                .extracting(User::getEmail).containsExactly("alice@test.com");
+
+        assertThat(sessionRepository.removeParticipant(id, alice.getId())).isEqualTo(1);
+        assertThat(sessionRepository.removeParticipant(id, alice.getId())).isZero();
+        assertThat(sessionRepository.findWithUsersById(id).orElseThrow().getUsers()).isEmpty();
+    }
+
+    private static User user(String email) {
+        return User.builder().email(email).firstName("First").lastName("Last").password("x").admin(false).build();
+    }
+
+    private static Session session(String name, LocalDateTime date) {
+        Session session = new Session();
+        session.setName(name);
+        session.setDescription(name);
+        session.setDate(date);
+        return session;
+    }
 }
@@ -42,4 +42,12 @@ class TeacherRepositoryTest {
         teacherRepository.deleteById(all.get(0).getId());
         assertThat(teacherRepository.findAll()).hasSize(1);
     }
+
+    @Test
+    void testFindAllIds() {
+        Teacher jean = teacherRepository.save(new Teacher(null, "Jean", "Durand", null, null));
+        Teacher marie = teacherRepository.save(new Teacher(null, "Marie", "Curie", null, null));
+
+        assertThat(teacherRepository.findAllIds()).containsExactlyInAnyOrder(jean.getId(), marie.getId());
+    }
 }
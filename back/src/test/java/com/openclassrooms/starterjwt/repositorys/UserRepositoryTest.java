@@ -4,11 +4,13 @@ import com.openclassrooms.starterjwt.models.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -55,4 +57,26 @@ class UserRepositoryTest {
         boolean exists = userRepository.existsByEmail("nope@example.com");
         assertThat(exists).isFalse();
     }
+
+    @Test
+    void testExistsByEmailWithoutFlush_ShouldAnswerAfterAFailedInsert() {
+        userRepository.saveAndFlush(User.builder()
+                .email("taken@example.com")
+                .firstName("First")
+                .lastName("User")
+                .password("password")
+                .admin(false)
+                .build());
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(User.builder()
+                .email("taken@example.com")
+                .firstName("Second")
+                .lastName("User")
+                .password("password")
+                .admin(false)
+                .build())).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(userRepository.existsByEmailWithoutFlush("taken@example.com")).isTrue();
+        assertThat(userRepository.existsByEmailWithoutFlush("free@example.com")).isFalse();
+    }
 }
@@ -0,0 +1,89 @@
+package com.openclassrooms.starterjwt.repositorys;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class WaitlistRepositoryTest {
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Session session;
+    private Session other;
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        session = entityManager.persist(session("Yoga"));
+        other = entityManager.persist(session("Pilates"));
+        alice = entityManager.persist(user("alice@test.com"));
+        bob = entityManager.persist(user("bob@test.com"));
+        carol = entityManager.persist(user("carol@test.com"));
+    }
+
+    @Test
+    void testPositionOf_ShouldFollowArrivalOrderPerSession() {
+        enqueue(other, carol);
+        enqueue(session, alice);
+        enqueue(session, bob);
+        enqueue(session, carol);
+
+        assertThat(waitlistRepository.positionOf(session.getId(), alice.getId())).isEqualTo(1);
+        assertThat(waitlistRepository.positionOf(session.getId(), bob.getId())).isEqualTo(2);
+        assertThat(waitlistRepository.positionOf(session.getId(), carol.getId())).isEqualTo(3);
+        assertThat(waitlistRepository.positionOf(other.getId(), carol.getId())).isEqualTo(1);
+        assertThat(waitlistRepository.positionOf(other.getId(), alice.getId())).isZero();
+    }
+
+    @Test
+    void testRemoveEntry_ShouldMoveFollowersUpAndExposeNewHead() {
+        WaitlistEntry first = enqueue(session, alice);
+        enqueue(session, bob);
+        enqueue(session, carol);
+
+        assertThat(waitlistRepository.findFirstBySessionIdOrderByIdAsc(session.getId()))
+                .get().extracting(WaitlistEntry::getId).isEqualTo(first.getId());
+        assertThat(waitlistRepository.removeEntry(first.getId())).isEqualTo(1);
+        assertThat(waitlistRepository.removeEntry(first.getId())).isZero();
+
+        assertThat(waitlistRepository.findFirstBySessionIdOrderByIdAsc(session.getId()))
+                .get().extracting(entry -> entry.getUser().getId()).isEqualTo(bob.getId());
+        assertThat(waitlistRepository.positionOf(session.getId(), carol.getId())).isEqualTo(2);
+        assertThat(waitlistRepository.findBySessionIdAndUserId(session.getId(), alice.getId())).isEmpty();
+    }
+
+    private WaitlistEntry enqueue(Session target, User user) {
+        return waitlistRepository.saveAndFlush(WaitlistEntry.builder().session(target).user(user).build());
+    }
+
+    private static User user(String email) {
+        return User.builder().email(email).firstName("First").lastName("Last").password("x").admin(false).build();
+    }
+
+    private static Session session(String name) {
+        Session session = new Session();
+        session.setName(name);
+        session.setDescription(name);
+        session.setDate(LocalDateTime.of(2026, 1, 1, 9, 0));
+        session.setCapacity(1);
+        return session;
+    }
+}
@@ -0,0 +1,115 @@
+package com.openclassrooms.starterjwt.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactHs256JwtCodecTest {
+
+    private final SecretKey secretKey = new SecretKeySpec("12345678901234567890123456789012".getBytes(), "HmacSHA256");
+
+    private CompactHs256JwtCodec codec;
+    private JwtEncoder nimbusEncoder;
+    private JwtDecoder nimbusDecoder;
+
+    @BeforeEach
+    void setUp() {
+        codec = new CompactHs256JwtCodec(secretKey);
+        nimbusEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(secretKey));
+        nimbusDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+    }
+
+    private static JwtEncoderParameters parameters(Instant expiresAt) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(expiresAt.truncatedTo(ChronoUnit.SECONDS))
+                .subject("jöhn\"doe@example.com")
+                .claim("roles", "USER")
+                .claim("id", 42L)
+                .claim("email", "jöhn\"doe@example.com")
+                .claim("admin", true)
+                .build();
+        return JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims);
+    }
+
+    private static void assertSameClaims(Jwt actual, Jwt expected) {
+        assertThat(actual.getSubject()).isEqualTo(expected.getSubject());
+        assertThat(actual.getIssuedAt()).isEqualTo(expected.getIssuedAt());
+        assertThat(actual.getExpiresAt()).isEqualTo(expected.getExpiresAt());
+        assertThat(actual.getClaimAsString("iss")).isEqualTo("self");
+        assertThat(actual.getClaimAsString("roles")).isEqualTo("USER");
+        assertThat(actual.<Object>getClaim("id")).isEqualTo(42L);
+        assertThat(actual.getClaimAsBoolean("admin")).isTrue();
+    }
+
+    @Test
+    void nimbusDecoder_ShouldAcceptCompactTokens() {
+        Jwt encoded = codec.encode(parameters(Instant.now().plusSeconds(3600)));
+
+        Jwt decoded = nimbusDecoder.decode(encoded.getTokenValue());
+
+        assertSameClaims(decoded, encoded);
+        assertThat(decoded.getSubject()).isEqualTo("jöhn\"doe@example.com");
+    }
+
+    @Test
+    void compactDecoder_ShouldAcceptNimbusTokens() {
+        String token = nimbusEncoder.encode(parameters(Instant.now().plusSeconds(3600))).getTokenValue();
+
+        Jwt decoded = codec.decode(token);
+
+        assertSameClaims(decoded, nimbusDecoder.decode(token));
+        assertThat(decoded.getHeaders()).containsEntry("alg", "HS256");
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedSignature() {
+        String token = codec.encode(parameters(Instant.now().plusSeconds(3600))).getTokenValue();
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        assertThatThrownBy(() -> codec.decode(tampered)).isInstanceOf(BadJwtException.class);
+    }
+
+    @Test
+    void decode_ShouldRejectTokenSignedWithAnotherKey() {
+        CompactHs256JwtCodec other = new CompactHs256JwtCodec(
+                new SecretKeySpec("abcdefghijabcdefghijabcdefghijab".getBytes(), "HmacSHA256"));
+        String token = other.encode(parameters(Instant.now().plusSeconds(3600))).getTokenValue();
+
+        assertThatThrownBy(() -> codec.decode(token)).isInstanceOf(BadJwtException.class);
+    }
+
+    @Test
+    void decode_ShouldRejectExpiredToken() {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("john@example.com")
+                .issuedAt(Instant.now().minusSeconds(7200))
+                .expiresAt(Instant.now().minusSeconds(3600))
+                .build();
+        String token = codec.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+
+        assertThatThrownBy(() -> codec.decode(token)).isInstanceOf(JwtValidationException.class);
+        assertThatThrownBy(() -> nimbusDecoder.decode(token)).isInstanceOf(JwtValidationException.class);
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedTokens() {
+        assertThatThrownBy(() -> codec.decode("invalidtoken")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> codec.decode("a.b.c.d")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> codec.decode("eyJhbGciOiJIUzI1NiJ9.!!!.abc")).isInstanceOf(BadJwtException.class);
+    }
+}
@@ -1,5 +1,7 @@
 package com.openclassrooms.starterjwt.security;
 
+import com.openclassrooms.starterjwt.models.AppUserDetails;
+import com.openclassrooms.starterjwt.models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -41,6 +43,60 @@ class HmacJwtFactoryTest {
         assertThat(jwtFactory.validateToken(token, "different@example.com")).isFalse();
     }
 
+    @Test
+    void extractUserDetails_ShouldReadUserClaims() {
+        User user = User.builder()
+                .id(42L)
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .password("hash")
+                .admin(true)
+                .build();
+        AppUserDetails principal = new AppUserDetails(user);
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        String token = jwtFactory.generateToken(auth);
+
+        JwtUserDetails details = jwtFactory.extractUserDetails(token);
+
+        assertThat(details).isNotNull();
+        assertThat(details.getId()).isEqualTo(42L);
+        assertThat(details.getUsername()).isEqualTo("john@example.com");
+        assertThat(details.isAdmin()).isTrue();
+    }
+
+    @Test
+    void extractUserDetails_ShouldReturnNull_WhenClaimsMissing() {
+        Authentication auth = new UsernamePasswordAuthenticationToken("john@example.com", "password");
+        String token = jwtFactory.generateToken(auth);
+
+        assertThat(jwtFactory.extractUserDetails(token)).isNull();
+    }
+
+    @Test
+    void extractUsername_ShouldVerifyTokenOnce_WhenCacheConfigured() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        HmacJwtFactory cachedFactory = new HmacJwtFactory("12345678901234567890123456789012", cache);
+        String token = cachedFactory.generateToken(new UsernamePasswordAuthenticationToken("john@example.com", "password"));
+
+        assertThat(cachedFactory.extractUsername(token)).isEqualTo("john@example.com");
+        assertThat(cachedFactory.validateToken(token, "john@example.com")).isTrue();
+
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void compactEngine_ShouldIssueTokensReadableByNimbusEngine() {
+        HmacJwtFactory compactFactory = new HmacJwtFactory("12345678901234567890123456789012", null,
+                HmacJwtFactory.Engine.COMPACT);
+        String token = compactFactory.generateToken(new UsernamePasswordAuthenticationToken("john@example.com", "password"));
+
+        assertThat(jwtFactory.extractUsername(token)).isEqualTo("john@example.com");
+        assertThat(compactFactory.extractUsername(jwtFactory.generateToken(
+                new UsernamePasswordAuthenticationToken("jane@example.com", "password")))).isEqualTo("jane@example.com");
+    }
+
     @Test
     void constructor_ShouldThrow_WhenSecretTooShort() {
         assertThatThrownBy(() -> new HmacJwtFactory("short"))
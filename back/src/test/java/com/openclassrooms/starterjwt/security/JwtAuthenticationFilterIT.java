@@ -0,0 +1,97 @@
+package com.openclassrooms.starterjwt.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.controllers.BaseIntegrationTest;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repositorys.SessionRepository;
+import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garde-fou : aucune opération de hachage ne doit avoir lieu sur le chemin
+ * authentifié par token, y compris lorsque l'utilisateur est relu en base.
+ */
+@TestPropertySource(properties = "jwt.authentication.db-lookup=true")
+class JwtAuthenticationFilterIT extends BaseIntegrationTest {
+
+    private static final int REQUESTS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    private String jwtToken;
+
+    @BeforeEach
+    void setup() throws Exception {
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userRepository.save(User.builder()
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .password(passwordEncoder.encode("password123"))
+                .admin(false)
+                .build());
+
+        var mvcResult = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("email", "john@example.com", "password", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        jwtToken = objectMapper.readTree(mvcResult.getResponse().getContentAsString())
+                               .get("token").asText();
+        clearInvocations(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Token-authenticated requests should never call a password encoder")
+    void tokenPath_ShouldNotHashPasswords() throws Exception {
+        try (MockedConstruction<BCryptPasswordEncoder> encoders = mockConstruction(BCryptPasswordEncoder.class)) {
+            for (int i = 0; i < REQUESTS; i++) {
+                mockMvc.perform(get("/api/session")
+                                .header("Authorization", "Bearer " + jwtToken))
+                        .andExpect(status().isOk());
+            }
+
+            assertThat(encoders.constructed()).isEmpty();
+        }
+
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(passwordEncoder, never()).encode(any());
+        verify(passwordEncoder, never()).upgradeEncoding(any());
+    }
+}
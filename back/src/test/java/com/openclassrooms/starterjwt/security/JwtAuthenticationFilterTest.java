@@ -35,10 +35,13 @@ class JwtAuthenticationFilterTest {
 
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    private JwtAuthenticationFilter claimsOnlyFilter;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, true);
+        claimsOnlyFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, false);
         SecurityContextHolder.clearContext();
     }
 
@@ -96,6 +99,40 @@ class JwtAuthenticationFilterTest {
     }
 
 
+    @Test
+    void shouldAuthenticateFromClaims_WithoutLoadingUser() throws Exception {
+        when(request.getRequestURI()).thenReturn("/api/sessions");
+        when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
+        when(jwtService.extractUsername("validtoken")).thenReturn("john@example.com");
+
+        JwtUserDetails userDetails = new JwtUserDetails(1L, "john@example.com", true);
+        when(jwtService.extractUserDetails("validtoken")).thenReturn(userDetails);
+
+        claimsOnlyFilter.doFilterInternal(request, response, filterChain);
+
+        verifyNoInteractions(userDetailsService);
+        verify(jwtService, never()).validateToken(any(), any());
+        verify(filterChain).doFilter(request, response);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isEqualTo(userDetails);
+        assertThat(authentication.getAuthorities()).hasSize(2);
+    }
+
+    @Test
+    void shouldReturnUnauthorized_WhenClaimsMissing() throws Exception {
+        when(request.getRequestURI()).thenReturn("/api/sessions");
+        when(request.getHeader("Authorization")).thenReturn("Bearer legacytoken");
+        when(jwtService.extractUsername("legacytoken")).thenReturn("john@example.com");
+        when(jwtService.extractUserDetails("legacytoken")).thenReturn(null);
+
+        claimsOnlyFilter.doFilterInternal(request, response, filterChain);
+
+        verifyNoInteractions(userDetailsService);
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
     @Test
     void shouldNotFilterExcludedPaths() {
         when(request.getRequestURI()).thenReturn("/auth/login");
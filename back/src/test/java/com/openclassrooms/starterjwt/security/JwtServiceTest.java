@@ -47,6 +47,15 @@ class JwtServiceTest {
         verify(jwtFactory).extractUsername("token123");
     }
 
+    @Test
+    void extractUserDetails_ShouldDelegateToFactory() {
+        JwtUserDetails details = new JwtUserDetails(1L, "john@example.com", false);
+        when(jwtFactory.extractUserDetails("token123")).thenReturn(details);
+
+        assertThat(jwtService.extractUserDetails("token123")).isEqualTo(details);
+        verify(jwtFactory).extractUserDetails("token123");
+    }
+
     @Test
     void validateToken_ShouldReturnTrue_WhenUsernameMatches() {
         UserDetails userDetails = new User("john@example.com", "password", java.util.Collections.emptyList());
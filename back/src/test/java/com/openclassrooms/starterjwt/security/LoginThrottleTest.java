@@ -0,0 +1,133 @@
+package com.openclassrooms.starterjwt.security;
+
+import com.openclassrooms.starterjwt.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private AtomicLong now;
+    private LoginThrottle throttle;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(10 * WINDOW_MILLIS);
+        throttle = new LoginThrottle(true, 60, 3, 10, 30, 2, 120, 64, now::get);
+        registry = new SimpleMeterRegistry();
+        throttle.bindTo(registry);
+    }
+
+    @Test
+    void checkAllowed_ShouldPass_BelowThreshold() {
+        throttle.recordFailure("user@test.com", "10.0.0.1");
+        throttle.recordFailure("user@test.com", "10.0.0.1");
+
+        assertThatCode(() -> throttle.checkAllowed("user@test.com", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAllowed_ShouldReject_WhenEmailThresholdReached() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("User@Test.com ", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> throttle.checkAllowed("user@test.com", "10.0.0.99"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(30L);
+        assertThat(registry.get("security.login.throttled").tag("key", "email").counter().count()).isEqualTo(1);
+        assertThatCode(() -> throttle.checkAllowed("other@test.com", "10.0.0.99")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAllowed_ShouldReject_WhenIpThresholdReached() {
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("user" + i + "@test.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.checkAllowed("fresh@test.com", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(registry.get("security.login.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void checkAllowed_ShouldBackOff_WhileAttemptsContinue() {
+        for (int i = 0; i < 6; i++) {
+            throttle.recordFailure("user@test.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.checkAllowed("user@test.com", "10.0.0.2"))
+                .extracting("retryAfterSeconds").isEqualTo(60L);
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> throttle.checkAllowed("user@test.com", "10.0.0.2"))
+                    .isInstanceOf(TooManyRequestsException.class);
+        }
+        assertThatThrownBy(() -> throttle.checkAllowed("user@test.com", "10.0.0.2"))
+                .extracting("retryAfterSeconds").isEqualTo(120L);
+    }
+
+    @Test
+    void checkAllowed_ShouldCountRejectionOnlyAgainstTrippedKey() {
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("user" + i + "@test.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> throttle.checkAllowed("victim@test.com", "10.0.0.1"))
+                    .isInstanceOf(TooManyRequestsException.class);
+        }
+        assertThatCode(() -> throttle.checkAllowed("victim@test.com", "10.0.0.2")).doesNotThrowAnyException();
+
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("locked@test.com", "10.0.0." + (10 + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> throttle.checkAllowed("locked@test.com", "10.0.0.3"))
+                    .isInstanceOf(TooManyRequestsException.class);
+        }
+        assertThatCode(() -> throttle.checkAllowed("other@test.com", "10.0.0.3")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAllowed_ShouldNotThrottle_KeysCollidingOnStringHashCode() {
+        assertThat("a~@test.com".hashCode()).isEqualTo("b_@test.com".hashCode());
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("a~@test.com", "10.0.0.1");
+        }
+
+        assertThatCode(() -> throttle.checkAllowed("b_@test.com", "10.0.0.2")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> throttle.checkAllowed("a~@test.com", "10.0.0.2"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void checkAllowed_ShouldRelease_OnceWindowHasSlid() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("user@test.com", "10.0.0.1");
+        }
+        now.addAndGet(WINDOW_MILLIS / 2);
+        assertThatThrownBy(() -> throttle.checkAllowed("user@test.com", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        now.addAndGet(2 * WINDOW_MILLIS);
+
+        assertThatCode(() -> throttle.checkAllowed("user@test.com", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAllowed_ShouldDoNothing_WhenDisabled() {
+        LoginThrottle disabled = new LoginThrottle(false, 60, 1, 1, 30, 2, 120, 64, now::get);
+        disabled.recordFailure("user@test.com", "10.0.0.1");
+        disabled.recordFailure("user@test.com", "10.0.0.1");
+
+        assertThatCode(() -> disabled.checkAllowed("user@test.com", "10.0.0.1")).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,66 @@
+package com.openclassrooms.starterjwt.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordEncoderCalibratorTest {
+
+    private static PasswordEncoderCalibrator calibrator(String algorithm, boolean calibrate, long targetMillis) {
+        return new PasswordEncoderCalibrator(algorithm, calibrate, targetMillis, 4, 1000, 1, 1024);
+    }
+
+    @Test
+    void createEncoder_ShouldPrefixHashesWithConfiguredAlgorithm() {
+        PasswordEncoder bcrypt = calibrator("bcrypt", false, 0).createEncoder();
+        PasswordEncoder pbkdf2 = calibrator("PBKDF2", false, 0).createEncoder();
+        PasswordEncoder argon2 = calibrator("argon2", false, 0).createEncoder();
+
+        assertThat(bcrypt.encode("secret")).startsWith("{bcrypt}$2a$04$");
+        assertThat(pbkdf2.encode("secret")).startsWith("{pbkdf2}");
+        assertThat(argon2.encode("secret")).startsWith("{argon2}$argon2id$");
+    }
+
+    @Test
+    void createEncoder_ShouldMatchEveryAlgorithmAndLegacyBcrypt() {
+        PasswordEncoder encoder = calibrator("argon2", false, 0).createEncoder();
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        String pbkdf2 = calibrator("pbkdf2", false, 0).createEncoder().encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.matches("secret", pbkdf2)).isTrue();
+        assertThat(encoder.matches("wrong", pbkdf2)).isFalse();
+    }
+
+    @Test
+    void createEncoder_ShouldRequestUpgrade_ForOutdatedAlgorithmOrCost() {
+        PasswordEncoder encoder = new PasswordEncoderCalibrator("bcrypt", false, 0, 6, 1000, 1, 1024).createEncoder();
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(calibrator("pbkdf2", false, 0).createEncoder().encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void calibrateBcryptStrength_ShouldStayWithinBounds() {
+        assertThat(calibrator("bcrypt", true, 1).calibrateBcryptStrength()).isEqualTo(10);
+        assertThat(calibrator("bcrypt", true, Long.MAX_VALUE).calibrateBcryptStrength()).isEqualTo(16);
+    }
+
+    @Test
+    void calibrateLinear_ShouldScaleProbeCostToTarget() {
+        int iterations = calibrator("pbkdf2", true, 1).calibrateLinear(1000, 5, cost -> new BCryptPasswordEncoder(4));
+
+        assertThat(iterations).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void constructor_ShouldRejectUnknownAlgorithm() {
+        assertThatThrownBy(() -> calibrator("md5", false, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
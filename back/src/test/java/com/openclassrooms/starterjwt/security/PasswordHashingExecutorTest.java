@@ -0,0 +1,106 @@
+package com.openclassrooms.starterjwt.security;
+
+import com.openclassrooms.starterjwt.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor(1, 1, 3);
+        registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void execute_ShouldRunTaskOnDedicatedThread() {
+        String threadName = executor.execute(() -> Thread.currentThread().getName());
+
+        assertThat(threadName).startsWith("password-hashing-");
+        assertThat(registry.get("password.hashing.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_ShouldPropagateTaskExceptions() {
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        })).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void execute_ShouldRejectImmediately_WhenSaturated() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "second"));
+        while (executor.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> executor.execute(() -> "third"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+        assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("password.hashing.queue.depth").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    void boundedPasswordEncoder_ShouldHashAndMatchOnExecutor() {
+        PasswordEncoder delegate = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return Thread.currentThread().getName() + ":" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return Thread.currentThread().getName().startsWith("password-hashing-")
+                        && encodedPassword.endsWith(":" + rawPassword);
+            }
+        };
+        PasswordEncoder encoder = new BoundedPasswordEncoder(delegate, executor);
+
+        String encoded = encoder.encode("secret");
+
+        assertThat(encoded).startsWith("password-hashing-");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(registry.get("password.hashing.latency").timer().count()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
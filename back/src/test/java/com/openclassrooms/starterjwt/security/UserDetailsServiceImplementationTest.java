@@ -5,10 +5,11 @@ import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repositorys.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedConstruction;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
 
@@ -21,7 +22,8 @@ class UserDetailsServiceImplementationTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    private UserDetailsCache userDetailsCache;
+
     private UserDetailsServiceImplementation userDetailsService;
 
     private User user;
@@ -29,6 +31,8 @@ class UserDetailsServiceImplementationTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userDetailsCache = new UserDetailsCache(true, 100, 300);
+        userDetailsService = new UserDetailsServiceImplementation(userRepository, userDetailsCache);
         user = User.builder()
                 .id(1L)
                 .email("test@example.com")
@@ -50,6 +54,50 @@ class UserDetailsServiceImplementationTest {
         verify(userRepository).findByEmail("test@example.com");
     }
 
+    @Test
+    void loadUserByUsername_ShouldNotHashAnyPassword() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        try (MockedConstruction<BCryptPasswordEncoder> encoders = mockConstruction(BCryptPasswordEncoder.class)) {
+            userDetailsService.loadUserByUsername("test@example.com");
+
+            assertThat(encoders.constructed()).isEmpty();
+        }
+    }
+
+    @Test
+    void loadUserByUsername_ShouldServeHotUsersFromCache() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test@example.com");
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+        assertThat(userDetailsCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReload_AfterInvalidation() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test@example.com");
+        userDetailsCache.invalidateById(1L);
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldAlwaysReadRepository_WhenCacheDisabled() {
+        userDetailsService = new UserDetailsServiceImplementation(userRepository, new UserDetailsCache(false, 100, 300));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test@example.com");
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
     @Test
     void loadUserByUsername_ShouldThrow_WhenUserNotFound() {
         when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
@@ -58,4 +106,17 @@ class UserDetailsServiceImplementationTest {
                 .isInstanceOf(UsernameNotFoundException.class)
                 .hasMessageContaining("Utilisateur non trouvé");
     }
+
+    @Test
+    void updatePassword_ShouldStoreNewHashAndInvalidateCache() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        AppUserDetails result = (AppUserDetails) userDetailsService.updatePassword(new AppUserDetails(user), "{bcrypt}new-hash");
+
+        assertThat(result.getPassword()).isEqualTo("{bcrypt}new-hash");
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}new-hash");
+        userDetailsService.loadUserByUsername("test@example.com");
+        verify(userRepository, times(3)).findByEmail("test@example.com");
+    }
 }
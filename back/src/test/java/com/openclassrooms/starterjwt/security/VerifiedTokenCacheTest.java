@@ -0,0 +1,70 @@
+package com.openclassrooms.starterjwt.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("john@example.com")
+                .issuedAt(Instant.now().minusSeconds(60))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void get_ShouldVerifyOnce_AndCountHitsAndMisses() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        AtomicInteger verifications = new AtomicInteger();
+        Jwt verified = jwt(Instant.now().plusSeconds(3600));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get("token", t -> {
+                verifications.incrementAndGet();
+                return verified;
+            })).isSameAs(verified);
+        }
+
+        assertThat(verifications).hasValue(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldNotKeepExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        AtomicInteger verifications = new AtomicInteger();
+        Jwt expired = jwt(Instant.now().minusSeconds(1));
+
+        cache.get("token", t -> {
+            verifications.incrementAndGet();
+            return expired;
+        });
+        cache.get("token", t -> {
+            verifications.incrementAndGet();
+            return expired;
+        });
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void get_ShouldNotCacheVerificationFailures() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+        assertThatThrownBy(() -> cache.get("bad", t -> {
+            throw new JwtException("invalid signature");
+        })).isInstanceOf(JwtException.class);
+
+        assertThat(cache.size()).isZero();
+    }
+}
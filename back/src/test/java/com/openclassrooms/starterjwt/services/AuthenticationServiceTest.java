@@ -101,6 +101,20 @@ class AuthenticationServiceTest {
         assertEquals(user.getEmail(), result.getEmail());
     }
 
+    @Test
+    void testIssueToken_ShouldSignSavedUserWithoutAuthenticating() {
+        when(jwtService.generateToken(any(Authentication.class))).thenReturn("token123");
+
+        TokenResponseDto result = authenticationService.issueToken(user);
+
+        assertEquals("token123", result.getToken());
+        assertEquals(user.getId(), result.getId());
+        assertEquals(user.getEmail(), result.getEmail());
+        verify(authenticationManager, never()).authenticate(any());
+        verify(jwtService).generateToken(argThat(auth -> auth.isAuthenticated()
+                && ((AppUserDetails) auth.getPrincipal()).getUser() == user));
+    }
+
     @Test
     void testGenerateToken_userNotFound() {
         when(authentication.getPrincipal()).thenReturn(userDetails);
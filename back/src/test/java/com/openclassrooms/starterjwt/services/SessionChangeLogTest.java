@@ -0,0 +1,94 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import com.openclassrooms.starterjwt.exceptions.GoneException;
+import com.openclassrooms.starterjwt.models.SessionChange;
+import com.openclassrooms.starterjwt.repositorys.SessionChangeJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.SessionChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionChangeLogTest {
+
+    @Mock
+    private SessionChangeRepository sessionChangeRepository;
+
+    @Mock
+    private SessionChangeJdbcRepository sessionChangeJdbcRepository;
+
+    private SessionChangeLog sessionChangeLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sessionChangeLog = new SessionChangeLog(sessionChangeRepository, sessionChangeJdbcRepository, 30, 300);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testJoinedAll_ShouldWriteOneBatchWithASingleTimestamp() {
+        sessionChangeLog.joinedAll(List.of(new ParticipationRequestDto(1L, 10L), new ParticipationRequestDto(2L, 11L)));
+
+        ArgumentCaptor<List<SessionChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(sessionChangeJdbcRepository).insertAll(changes.capture());
+        assertEquals(List.of("1:10:JOINED", "2:11:JOINED"), changes.getValue().stream()
+                .map(change -> change.getSessionId() + ":" + change.getUserId() + ":" + change.getType())
+                .toList());
+        assertEquals(1, changes.getValue().stream().map(SessionChange::getChangedAt).distinct().count());
+    }
+
+    @Test
+    void testSavedAll_ShouldNotWrite_WhenEmpty() {
+        sessionChangeLog.savedAll(List.of());
+
+        verifyNoInteractions(sessionChangeJdbcRepository);
+    }
+
+    @Test
+    void testSince_ShouldRejectDatesBeyondRetention() {
+        assertThrows(GoneException.class, () -> sessionChangeLog.since(LocalDateTime.now().minusDays(31)));
+        verifyNoInteractions(sessionChangeRepository);
+
+        LocalDateTime since = LocalDateTime.now().minusDays(29);
+        sessionChangeLog.since(since);
+        verify(sessionChangeRepository).findSince(since);
+    }
+
+    @Test
+    void testSyncPoint_ShouldTrailTheClockByTheGraceWindow() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(300);
+
+        LocalDateTime until = sessionChangeLog.syncPoint(LocalDateTime.now().minusHours(1));
+
+        assertFalse(until.isBefore(before.minusNanos(1_000)));
+        assertFalse(until.isAfter(LocalDateTime.now().minusSeconds(300)));
+    }
+
+    @Test
+    void testSyncPoint_ShouldNeverGoBeforeSince() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(10);
+
+        assertEquals(since, sessionChangeLog.syncPoint(since));
+    }
+
+    @Test
+    void testCompact_ShouldDeleteEntriesOlderThanRetention() {
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        sessionChangeLog.compact();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(sessionChangeRepository).deleteOlderThan(cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+    }
+}
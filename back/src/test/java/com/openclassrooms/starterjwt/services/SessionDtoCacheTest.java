@@ -0,0 +1,160 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionDtoCacheTest {
+
+    private static SessionDto dto(long id) {
+        SessionDto dto = new SessionDto();
+        dto.setId(id);
+        dto.setName("Yoga " + id);
+        return dto;
+    }
+
+    @Test
+    void get_ShouldLoadOnce_AndCountHitsAndMisses() {
+        SessionDtoCache cache = new SessionDtoCache(true, 100, 600);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return dto(id);
+            });
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldLoadOnce_UnderConcurrentMisses() throws Exception {
+        SessionDtoCache cache = new SessionDtoCache(true, 100, 600);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<SessionDto> first = pool.submit(() -> cache.get(1L, id -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return dto(id);
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            List<Future<SessionDto>> others = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                others.add(pool.submit(() -> cache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    return dto(id);
+                })));
+            }
+            release.countDown();
+
+            SessionDto loaded = first.get(5, TimeUnit.SECONDS);
+            for (Future<SessionDto> other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS)).isSameAs(loaded);
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingSessions() {
+        SessionDtoCache cache = new SessionDtoCache(true, 100, 600);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(cache.get(9L, id -> {
+                loads.incrementAndGet();
+                return null;
+            })).isNull();
+        }
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnNextGet() {
+        SessionDtoCache cache = new SessionDtoCache(true, 100, 600);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> dto(loads.incrementAndGet()));
+        cache.get(2L, id -> dto(loads.incrementAndGet()));
+        cache.invalidateAll(List.of(1L));
+
+        assertThat(cache.get(1L, id -> dto(loads.incrementAndGet())).getId()).isEqualTo(3L);
+        assertThat(cache.get(2L, id -> dto(loads.incrementAndGet())).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void invalidate_ShouldEvictAgainAfterCompletion() {
+        SessionDtoCache cache = new SessionDtoCache(true, 100, 600);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L);
+            // lecture concurrente de l'ancien état, avant le commit
+            cache.get(1L, SessionDtoCacheTest::dto);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return dto(id);
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_ShouldAlwaysLoad_WhenDisabled() {
+        SessionDtoCache cache = new SessionDtoCache(false, 100, 600);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> dto(loads.incrementAndGet()));
+        cache.get(1L, id -> dto(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void bindTo_ShouldExposeGetsAndHitRatio() {
+        SessionDtoCache cache = new SessionDtoCache(true, 100, 600);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(1L, SessionDtoCacheTest::dto);
+        cache.get(1L, SessionDtoCacheTest::dto);
+
+        assertThat(registry.get("cache.gets").tag("cache", "session.dto").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.hit.ratio").tag("cache", "session.dto").gauge().value()).isEqualTo(0.5);
+    }
+}
@@ -0,0 +1,153 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionImportResultDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repositorys.SessionJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.TeacherRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionImportServiceTest {
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private SessionJdbcRepository sessionJdbcRepository;
+
+    @Mock
+    private SessionTextIndex sessionTextIndex;
+
+    @Mock
+    private SessionChangeLog sessionChangeLog;
+
+    private SessionImportService sessionImportService;
+
+    private final List<List<Session>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sessionImportService = new SessionImportService(teacherRepository, sessionJdbcRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), sessionTextIndex, sessionChangeLog, 2, 3);
+        when(teacherRepository.findAllIds()).thenReturn(Set.of(1L, 2L));
+        // Le service réutilise la liste du lot : on en garde une copie.
+        doAnswer(invocation -> {
+            List<Session> batch = new ArrayList<>(invocation.getArgument(0));
+            batches.add(batch);
+            return LongStream.rangeClosed(1, batch.size()).map(i -> 100L * batches.size() + i).boxed().toList();
+        }).when(sessionJdbcRepository).insertAll(anyList());
+    }
+
+    @Test
+    void testImportCsv_InsertsValidRowsInBatchesAndReportsInvalidOnes() throws Exception {
+        String csv = "description,name,date,teacher_id,capacity\r\n"
+                + "\"Calme, lent\",Yin,2026-01-05T09:00:00,1,12\r\n"
+                + "\"Dit \"\"flow\"\"\",Vinyasa,2026-01-05,2,\r\n"
+                + "\r\n"
+                + "Sans prof,Hatha,2026-01-06T10:00:00,9,\r\n"
+                + "Date,Kundalini,demain,1,0\r\n"
+                + "\"Sur\ndeux lignes\",Nidra,2026-01-07T18:00:00+02:00,1,\r\n"
+                + "Trop,de,champs,1,2,3\r\n";
+
+        SessionImportResultDto result = sessionImportService.importCsv(stream(csv));
+
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(3L, 4L, 6L), result.getErrors().stream().map(SessionImportResultDto.RowError::getRow).toList());
+        assertTrue(result.getErrors().get(0).getMessage().contains("teacher 9 not found"));
+        assertTrue(result.getErrors().get(1).getMessage().contains("date: invalid"));
+        assertTrue(result.getErrors().get(1).getMessage().contains("capacity"));
+
+        verify(teacherRepository, times(1)).findAllIds();
+        verify(sessionTextIndex).rebuildAfterCommit();
+        verify(sessionChangeLog).savedAll(List.of(101L, 102L));
+        verify(sessionChangeLog).savedAll(List.of(201L));
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        Session first = batches.get(0).get(0);
+        assertEquals("Yin", first.getName());
+        assertEquals("Calme, lent", first.getDescription());
+        assertEquals(12, first.getCapacity());
+        assertEquals(1L, first.getTeacher().getId());
+        assertEquals("Dit \"flow\"", batches.get(0).get(1).getDescription());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 0, 0), batches.get(0).get(1).getDate());
+        Session last = batches.get(1).get(0);
+        assertEquals("Sur\ndeux lignes", last.getDescription());
+        assertEquals(LocalDateTime.of(2026, 1, 7, 16, 0), last.getDate());
+    }
+
+    @Test
+    void testImportCsv_ShouldKeepOnlyFirstErrorsButCountAllRejections() throws Exception {
+        StringBuilder csv = new StringBuilder("name,date,teacher_id,description\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("Yin,demain,1,Calme\n");
+        }
+        csv.append("Yin,2026-01-05,1,Calme\n");
+
+        SessionImportResultDto result = sessionImportService.importCsv(stream(csv.toString()));
+
+        assertEquals(1, result.getImported());
+        assertEquals(10, result.getRejected());
+        assertEquals(List.of(1L, 2L, 3L), result.getErrors().stream().map(SessionImportResultDto.RowError::getRow).toList());
+    }
+
+    @Test
+    void testImportCsv_InvalidHeader() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sessionImportService.importCsv(stream("name,date,teacher\nYin,2026-01-05,1\n")));
+        assertThrows(IllegalArgumentException.class, () -> sessionImportService.importCsv(stream("")));
+        verify(sessionJdbcRepository, never()).insertAll(anyList());
+        verify(sessionTextIndex, never()).rebuildAfterCommit();
+        verifyNoInteractions(sessionChangeLog);
+    }
+
+    @Test
+    void testImportCsv_UnterminatedQuote() {
+        String csv = "name,date,teacher_id,description\nYin,2026-01-05,1,\"Calme\n";
+        assertThrows(IllegalArgumentException.class, () -> sessionImportService.importCsv(stream(csv)));
+    }
+
+    @Test
+    void testImportJson_ReportsRowsByIndex() throws Exception {
+        String json = "[{\"name\":\"Yin\",\"date\":\"2026-01-05T09:00:00.000+00:00\",\"teacher_id\":1,\"description\":\"Calme\"},"
+                + "42,"
+                + "{\"name\":\"\",\"date\":\"2026-01-05T10:00:00\",\"teacher_id\":2,\"description\":\"Sans nom\"},"
+                + "{\"name\":\"Hatha\",\"date\":\"2026-01-06\",\"teacher_id\":2,\"description\":\"Doux\",\"capacity\":8}]";
+
+        SessionImportResultDto result = sessionImportService.importJson(stream(json));
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2L, 3L), result.getErrors().stream().map(SessionImportResultDto.RowError::getRow).toList());
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("name:"));
+        assertEquals(1, batches.size());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 9, 0), batches.get(0).get(0).getDate());
+        assertEquals(8, batches.get(0).get(1).getCapacity());
+    }
+
+    @Test
+    void testImportJson_NotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> sessionImportService.importJson(stream("{\"name\":\"Yin\"}")));
+        assertThrows(IllegalArgumentException.class, () -> sessionImportService.importJson(stream("[{\"name\":")));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,275 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionOccupancyDto;
+import com.openclassrooms.starterjwt.exceptions.NotFoundException;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository.Seats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionOccupancyBroadcasterTest {
+
+    @Mock
+    private ParticipationJdbcRepository participationJdbcRepository;
+
+    private final Map<Long, Seats> table = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SessionOccupancyBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(participationJdbcRepository.findSeats(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, Seats> seats = new TreeMap<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                if (table.containsKey(id)) {
+                    seats.put(id, table.get(id));
+                }
+            }
+            return seats;
+        });
+        broadcaster = new SessionOccupancyBroadcaster(participationJdbcRepository, 2, 60_000, 3, 2, 60_000);
+        broadcaster.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void testSubscribe_ShouldSendCurrentOccupancyOfExistingSessions() throws Exception {
+        table.put(1L, new Seats(10, 4));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.subscribe(List.of(1L, 9L), emitter);
+
+        await(() -> emitter.sent.size() == 1);
+        assertEquals(new SessionOccupancyDto(1L, 4, 10), emitter.sent.get(0));
+        assertEquals(1, broadcaster.subscribers());
+    }
+
+    @Test
+    void testSubscribe_ShouldThrowNotFound_WhenNoSessionExists() {
+        assertThrows(NotFoundException.class, () -> broadcaster.subscribe(List.of(9L), new RecordingEmitter()));
+        assertEquals(0, broadcaster.subscribers());
+    }
+
+    @Test
+    void testSubscribe_ShouldRefuseBeyondMaxSubscribers() {
+        table.put(1L, new Seats(null, 0));
+        for (int i = 0; i < 3; i++) {
+            broadcaster.subscribe(List.of(1L), new RecordingEmitter());
+        }
+        assertThrows(IllegalStateException.class, () -> broadcaster.subscribe(List.of(1L), new RecordingEmitter()));
+    }
+
+    @Test
+    void testChanged_ShouldNotReadAnything_WhenNobodyWatches() {
+        broadcaster.changed(1L);
+
+        verifyNoInteractions(participationJdbcRepository);
+    }
+
+    @Test
+    void testChanged_ShouldPushNewOccupancyToWatchers() throws Exception {
+        table.put(1L, new Seats(10, 4));
+        table.put(2L, new Seats(10, 7));
+        RecordingEmitter watcher = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        broadcaster.subscribe(List.of(1L), watcher);
+        broadcaster.subscribe(List.of(2L), other);
+        await(() -> watcher.sent.size() == 1 && other.sent.size() == 1);
+
+        table.put(1L, new Seats(10, 5));
+        broadcaster.changedAll(List.of(1L, 3L));
+
+        await(() -> watcher.sent.size() == 2);
+        assertEquals(new SessionOccupancyDto(1L, 5, 10), watcher.sent.get(1));
+        assertEquals(1, other.sent.size());
+    }
+
+    @Test
+    void testSlowConsumer_ShouldOnlyReceiveLatestOccupancy() throws Exception {
+        table.put(1L, new Seats(10, 0));
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        broadcaster.subscribe(List.of(1L), slow);
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+        for (int booked = 1; booked <= 3; booked++) {
+            table.put(1L, new Seats(10, booked));
+            broadcaster.changed(1L);
+            int reads = booked + 1;
+            verify(participationJdbcRepository, timeout(5000).times(reads)).findSeats(anyCollection());
+        }
+        await(() -> registry.counter("session.occupancy.coalesced").count() == 2);
+        slow.gate.countDown();
+
+        await(() -> slow.sent.size() == 2);
+        assertEquals(List.of(new SessionOccupancyDto(1L, 0, 10), new SessionOccupancyDto(1L, 3, 10)), slow.sent);
+    }
+
+    @Test
+    void testSlowConsumer_ShouldDropOldestWhenBufferIsFull() throws Exception {
+        table.put(1L, new Seats(null, 0));
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        broadcaster.subscribe(List.of(1L, 2L, 3L), slow);
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+        table.put(2L, new Seats(null, 2));
+        table.put(3L, new Seats(null, 3));
+        broadcaster.changedAll(List.of(2L, 3L));
+        verify(participationJdbcRepository, timeout(5000).times(2)).findSeats(anyCollection());
+        table.put(1L, new Seats(null, 1));
+        broadcaster.changed(1L);
+        await(() -> registry.counter("session.occupancy.dropped").count() == 1);
+        slow.gate.countDown();
+
+        await(() -> slow.sent.size() == 3);
+        assertEquals(List.of(new SessionOccupancyDto(1L, 0, null), new SessionOccupancyDto(3L, 3, null),
+                new SessionOccupancyDto(1L, 1, null)), slow.sent);
+    }
+
+    @Test
+    void testStalledConsumer_ShouldNotHoldBackOthers() throws Exception {
+        // Un seul thread : sans délai d'envoi, le client bloqué retiendrait tous les autres.
+        SessionOccupancyBroadcaster single = new SessionOccupancyBroadcaster(participationJdbcRepository, 2, 60_000, 3, 1, 50);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        single.bindTo(meters);
+        try {
+            table.put(1L, new Seats(10, 4));
+            RecordingEmitter stalled = new RecordingEmitter();
+            stalled.gate = new CountDownLatch(1);
+            stalled.deaf = true;
+            RecordingEmitter healthy = new RecordingEmitter();
+            single.subscribe(List.of(1L), stalled);
+            assertTrue(stalled.entered.await(5, TimeUnit.SECONDS));
+            single.subscribe(List.of(1L), healthy);
+            Thread.sleep(100);
+            assertTrue(healthy.sent.isEmpty());
+
+            single.expireStalled();
+
+            await(() -> healthy.sent.size() == 1);
+            assertEquals(new SessionOccupancyDto(1L, 4, 10), healthy.sent.get(0));
+            assertEquals(1, single.subscribers());
+            assertEquals(1, meters.counter("session.occupancy.stalled").count());
+
+            table.put(1L, new Seats(10, 5));
+            single.changed(1L);
+            await(() -> healthy.sent.size() == 2);
+
+            stalled.gate.countDown();
+            await(() -> stalled.failure != null);
+            assertInstanceOf(IOException.class, stalled.failure);
+        } finally {
+            single.destroy();
+        }
+    }
+
+    @Test
+    void testHeartbeat_ShouldSendComment() throws Exception {
+        table.put(1L, new Seats(null, 0));
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(List.of(1L), emitter);
+        await(() -> emitter.sent.size() == 1);
+
+        broadcaster.heartbeat();
+
+        await(() -> emitter.sent.size() == 2);
+        assertEquals("keep-alive", emitter.sent.get(1));
+    }
+
+    @Test
+    void testBrokenConnection_ShouldUnsubscribe() throws Exception {
+        table.put(1L, new Seats(null, 0));
+        RecordingEmitter gone = new RecordingEmitter();
+        gone.broken = true;
+
+        broadcaster.subscribe(List.of(1L), gone);
+
+        await(() -> broadcaster.subscribers() == 0);
+        broadcaster.changed(1L);
+        verify(participationJdbcRepository, times(1)).findSeats(anyCollection());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Garde les données envoyées ; {@code gate} retient le premier envoi, comme un client lent,
+     * et {@code deaf} lui fait ignorer les interruptions, comme une écriture réseau bloquée.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<Object> sent = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean broken;
+        volatile boolean deaf;
+        volatile Throwable failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    if (!deaf) {
+                        break;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            for (var part : builder.build()) {
+                if (part.getData() instanceof SessionOccupancyDto occupancy) {
+                    sent.add(occupancy);
+                } else if (part.getData().toString().contains("keep-alive")) {
+                    sent.add("keep-alive");
+                }
+            }
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failure = ex;
+            super.completeWithError(ex);
+        }
+    }
+}
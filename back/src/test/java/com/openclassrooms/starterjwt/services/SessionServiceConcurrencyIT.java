@@ -0,0 +1,263 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repositorys.SessionRepository;
+import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inscriptions simultanées sur une session à capacité limitée. Pas de transaction de test :
+ * chaque appel s'exécute dans sa propre transaction, sur un pool de plusieurs connexions,
+ * comme des requêtes HTTP parallèles.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.show-sql=false"
+})
+class SessionServiceConcurrencyIT {
+
+    private static final int CAPACITY = 20;
+    private static final int USERS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SessionTextIndex sessionTextIndex;
+
+    private Long sessionId;
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        userIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userRepository.save(User.builder()
+                    .email("user" + i + "@test.com")
+                    .firstName("First")
+                    .lastName("Last")
+                    .password("password")
+                    .admin(false)
+                    .build()).getId());
+        }
+        sessionId = sessionRepository.save(Session.builder()
+                .name("Yoga")
+                .description("Popular class")
+                .date(LocalDateTime.now().plusDays(1))
+                .capacity(CAPACITY)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("participate - parallel bookings never exceed capacity")
+    void participate_ShouldNeverOverbook() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(userIds, userId -> {
+            try {
+                sessionService.participate(sessionId, userId);
+                booked.incrementAndGet();
+            } catch (ConflictException e) {
+                full.incrementAndGet();
+            }
+        }, errors);
+
+        assertThat(errors).isEmpty();
+        assertThat(booked.get()).isEqualTo(CAPACITY);
+        assertThat(full.get()).isEqualTo(USERS - CAPACITY);
+        assertInvariant();
+        assertThat(sessionRepository.findById(sessionId).orElseThrow().getBooked()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    @DisplayName("participate/noLongerParticipate - seats freed under load are rebooked, never overbooked")
+    void participateAndLeave_ShouldKeepCounterInSyncWithRoster() throws Exception {
+        List<Long> firstWave = userIds.subList(0, CAPACITY);
+        for (Long userId : firstWave) {
+            sessionService.participate(sessionId, userId);
+        }
+        List<Long> leaving = firstWave.subList(0, CAPACITY / 2);
+        List<Long> joining = userIds.subList(CAPACITY, USERS);
+        List<Long> mixed = new ArrayList<>();
+        for (int i = 0; i < joining.size(); i++) {
+            mixed.add(joining.get(i));
+            if (i < leaving.size()) {
+                mixed.add(-leaving.get(i));
+            }
+        }
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(mixed, signedId -> {
+            try {
+                if (signedId < 0) {
+                    sessionService.noLongerParticipate(sessionId, -signedId);
+                } else {
+                    sessionService.participate(sessionId, signedId);
+                }
+            } catch (ConflictException e) {
+                // Session complète à cet instant : refus attendu.
+            }
+        }, errors);
+
+        assertThat(errors).isEmpty();
+        Session session = sessionRepository.findWithUsersById(sessionId).orElseThrow();
+        assertThat(session.getUsers()).extracting(User::getId).doesNotContainAnyElementsOf(leaving);
+        assertInvariant();
+    }
+
+    @Test
+    @DisplayName("noLongerParticipate - parallel cancellations promote the waitlist in arrival order")
+    void noLongerParticipate_ShouldPromoteWaitlistHeadsInOrder() throws Exception {
+        List<Long> firstWave = userIds.subList(0, CAPACITY);
+        for (Long userId : firstWave) {
+            sessionService.participate(sessionId, userId);
+        }
+        List<Long> queued = userIds.subList(CAPACITY, USERS);
+        for (int i = 0; i < queued.size(); i++) {
+            assertThat(sessionService.joinWaitlist(sessionId, queued.get(i))).isEqualTo(i + 1);
+        }
+        List<Long> leaving = firstWave.subList(0, CAPACITY / 2);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(leaving, userId -> sessionService.noLongerParticipate(sessionId, userId), errors);
+
+        assertThat(errors).isEmpty();
+        Session session = sessionRepository.findWithUsersById(sessionId).orElseThrow();
+        assertThat(session.getUsers()).extracting(User::getId)
+                .containsAll(queued.subList(0, leaving.size()))
+                .doesNotContainAnyElementsOf(leaving);
+        assertThat(session.getBooked()).isEqualTo(CAPACITY);
+        assertInvariant();
+        assertThat(sessionService.waitlistPosition(sessionId, queued.get(leaving.size()))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("changesSince - a write committed after a sync is returned by the next one")
+    void changesSince_ShouldNotLoseWritesCommittedAfterTheSync() throws Exception {
+        LocalDateTime since = LocalDateTime.now();
+        Long userId = userIds.get(0);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writer = pool.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                sessionService.participate(sessionId, userId);
+                written.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // La transaction a daté son entrée mais ne l'a pas encore validée.
+            SessionChanges first = sessionService.changesSince(since);
+            release.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+            SessionChanges second = sessionService.changesSince(first.until());
+
+            assertThat(first.participations()).isEmpty();
+            assertThat(second.participations())
+                    .extracting(change -> change.getSessionId() + ":" + change.getUserId() + ":" + change.getType())
+                    .containsExactly(sessionId + ":" + userId + ":JOINED");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("create - the text index only sees committed sessions")
+    void create_ShouldIndexOnlyCommittedSessions() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            sessionService.create(Session.builder().name("Ashtanga").description("Série primaire")
+                    .date(LocalDateTime.now().plusDays(2)).build());
+            status.setRollbackOnly();
+        });
+        assertThat(sessionTextIndex.search("ashtanga", 0, 10).total()).isZero();
+
+        Long id = transaction.execute(status -> sessionService.create(Session.builder().name("Ashtanga")
+                .description("Série primaire").date(LocalDateTime.now().plusDays(2)).build()).getId());
+        assertThat(sessionTextIndex.search("ashtanga", 0, 10).hits())
+                .extracting(SessionTextIndex.Hit::sessionId).containsExactly(id);
+
+        transaction.executeWithoutResult(status -> sessionService.delete(id));
+        assertThat(sessionTextIndex.search("ashtanga", 0, 10).total()).isZero();
+    }
+
+    private void assertInvariant() {
+        Session session = sessionRepository.findWithUsersById(sessionId).orElseThrow();
+        assertThat(session.getBooked()).isEqualTo(session.getUsers().size());
+        assertThat(session.getBooked()).isLessThanOrEqualTo(CAPACITY);
+    }
+
+    private static void runConcurrently(List<Long> ids, ThrowingConsumer action, Queue<Throwable> errors)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (Long id : ids) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    action.accept(id);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingConsumer {
+        void accept(Long id) throws Exception;
+    }
+}
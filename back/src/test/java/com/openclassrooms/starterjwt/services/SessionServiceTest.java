@@ -1,14 +1,31 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.ParticipantDto;
+import com.openclassrooms.starterjwt.dto.ParticipationRequestDto;
+import com.openclassrooms.starterjwt.dto.ParticipationResultDto;
+import com.openclassrooms.starterjwt.dto.ParticipationResultDto.Outcome;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.exceptions.BadRequestException;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
+import com.openclassrooms.starterjwt.exceptions.GoneException;
 import com.openclassrooms.starterjwt.exceptions.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionChange;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.ParticipationJdbcRepository.Seats;
 import com.openclassrooms.starterjwt.repositorys.SessionRepository;
 import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import com.openclassrooms.starterjwt.repositorys.WaitlistRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +38,24 @@ class SessionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private ParticipationJdbcRepository participationJdbcRepository;
+
+    @Mock
+    private SessionTextIndex sessionTextIndex;
+
+    @Mock
+    private SessionChangeLog sessionChangeLog;
+
+    @Mock
+    private SessionOccupancyBroadcaster sessionOccupancyBroadcaster;
+
+    @Mock
+    private SessionDtoCache sessionDtoCache;
+
     @InjectMocks
     private SessionService sessionService;
 
@@ -38,7 +73,7 @@ class SessionServiceTest {
 
         session = new Session();
         session.setId(1L);
-        session.setUsers(new ArrayList<>());
+        session.setUsers(new HashSet<>());
     }
 
     // ---------- CREATE ----------
@@ -51,6 +86,8 @@ class SessionServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(sessionRepository, times(1)).save(session);
+        verify(sessionTextIndex).putAfterCommit(1L, session.getName(), session.getDescription());
+        verify(sessionChangeLog).saved(1L);
     }
 
     // ---------- DELETE ----------
@@ -61,6 +98,67 @@ class SessionServiceTest {
         sessionService.delete(1L);
 
         verify(sessionRepository, times(1)).deleteById(1L);
+        verify(sessionTextIndex).removeAfterCommit(1L);
+        verify(sessionChangeLog).deleted(1L);
+        verify(sessionDtoCache).invalidate(1L);
+    }
+
+    // ---------- CHANGES ----------
+    @Test
+    void testChangesSince_ShouldCoalesceChangesPerSession() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        Session later = Session.builder().id(2L).date(LocalDateTime.now().plusDays(2)).build();
+        Session sooner = Session.builder().id(3L).date(LocalDateTime.now().plusDays(1)).build();
+        when(sessionChangeLog.since(since)).thenReturn(List.of(
+                change(2L, null, SessionChange.Type.SAVED),
+                change(2L, 10L, SessionChange.Type.JOINED),
+                change(3L, null, SessionChange.Type.SAVED),
+                change(3L, null, SessionChange.Type.SAVED),
+                change(4L, null, SessionChange.Type.SAVED),
+                change(4L, 10L, SessionChange.Type.JOINED),
+                change(4L, null, SessionChange.Type.DELETED),
+                change(5L, 10L, SessionChange.Type.JOINED),
+                change(5L, 11L, SessionChange.Type.JOINED),
+                change(5L, 10L, SessionChange.Type.LEFT)));
+        when(sessionRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(later, sooner));
+        LocalDateTime until = LocalDateTime.now().minusMinutes(5);
+        when(sessionChangeLog.syncPoint(since)).thenReturn(until);
+
+        SessionChanges changes = sessionService.changesSince(since);
+
+        assertEquals(List.of(sooner, later), changes.sessions());
+        assertEquals(List.of(4L), changes.deleted());
+        assertEquals(List.of("5:11:JOINED", "5:10:LEFT"), changes.participations().stream()
+                .map(change -> change.getSessionId() + ":" + change.getUserId() + ":" + change.getType())
+                .toList());
+        assertEquals(until, changes.until());
+    }
+
+    @Test
+    void testChangesSince_ShouldPropagateGone_WhenBeyondRetention() {
+        LocalDateTime since = LocalDateTime.now().minusYears(1);
+        when(sessionChangeLog.since(since)).thenThrow(new GoneException("gone"));
+
+        assertThrows(GoneException.class, () -> sessionService.changesSince(since));
+        verifyNoInteractions(sessionRepository);
+    }
+
+    private static SessionChange change(Long sessionId, Long userId, SessionChange.Type type) {
+        return SessionChange.builder().sessionId(sessionId).userId(userId).type(type).changedAt(LocalDateTime.now()).build();
+    }
+
+    // ---------- TEXT SEARCH ----------
+    @Test
+    void testTextSearch_ShouldKeepRankOrderAndSkipDeletedSessions() {
+        Session second = Session.builder().id(2L).build();
+        when(sessionTextIndex.search("yoga", 20, 10)).thenReturn(new SessionTextIndex.Result(List.of(
+                new SessionTextIndex.Hit(2L, 3f), new SessionTextIndex.Hit(9L, 2f), new SessionTextIndex.Hit(1L, 1f)), 23));
+        when(sessionRepository.findAllById(List.of(2L, 9L, 1L))).thenReturn(List.of(session, second));
+
+        SessionTextPage page = sessionService.textSearch("yoga", 2, 10);
+
+        assertEquals(List.of(second, session), page.items());
+        assertEquals(23, page.total());
     }
 
     // ---------- FIND ALL ----------
@@ -74,10 +172,76 @@ class SessionServiceTest {
         assertEquals(1L, result.get(0).getId());
     }
 
+    // ---------- FIND PAGE ----------
+    @Test
+    void testFindPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        LocalDateTime date = LocalDateTime.of(2026, 1, 1, 9, 0);
+        Session first = Session.builder().id(1L).date(date).build();
+        Session second = Session.builder().id(2L).date(date).build();
+        when(sessionRepository.findFirstPage(Limit.of(2))).thenReturn(List.of(first, second));
+
+        SessionPage<Session> page = sessionService.findPage(null, 1);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(new SessionCursor(date, 1L), SessionCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testFindPage_ShouldSeekAfterCursor_OnLastPage() {
+        LocalDateTime date = LocalDateTime.of(2026, 1, 1, 9, 0);
+        Session second = Session.builder().id(2L).date(date).build();
+        when(sessionRepository.findPageAfter(date, 1L, Limit.of(3))).thenReturn(List.of(second));
+
+        SessionPage<Session> page = sessionService.findPage(new SessionCursor(date, 1L).encode(), 2);
+
+        assertEquals(List.of(second), page.items());
+        assertNull(page.nextCursor());
+        verify(sessionRepository, never()).findFirstPage(any());
+    }
+
+    @Test
+    void testFindSummaryPage_ShouldUseProjectionQueries() {
+        LocalDateTime date = LocalDateTime.of(2026, 1, 1, 9, 0);
+        SessionSummaryDto first = new SessionSummaryDto(1L, "Yoga", date, "desc", 2L, 4);
+        SessionSummaryDto second = new SessionSummaryDto(2L, "Pilates", date, "desc", 3L, 0);
+        when(sessionRepository.findSummaryPageAfter(date, 0L, Limit.of(2))).thenReturn(List.of(first, second));
+
+        SessionPage<SessionSummaryDto> page = sessionService.findSummaryPage(new SessionCursor(date, 0L).encode(), 1);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(new SessionCursor(date, 1L), SessionCursor.decode(page.nextCursor()));
+        verify(sessionRepository, never()).findPageAfter(any(), any(), any());
+    }
+
+    @Test
+    void testSearch_ShouldFetchOneExtraRowForTheNextCursor() {
+        LocalDateTime date = LocalDateTime.of(2026, 1, 1, 9, 0);
+        Session first = Session.builder().id(1L).date(date).build();
+        Session second = Session.builder().id(2L).date(date).build();
+        doReturn(List.of(first, second)).when(sessionRepository).findBy(ArgumentMatchers.<Specification<Session>>any(), any());
+
+        SessionPage<Session> page = sessionService.search(new SessionSearch(null, null, 3L, null, true, null), null, 1);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(new SessionCursor(date, 1L), SessionCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testSearch_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sessionService.search(new SessionSearch(null, null, null, null, false, null), "not-a-cursor", 10));
+        verify(sessionRepository, never()).findBy(ArgumentMatchers.<Specification<Session>>any(), any());
+    }
+
+    @Test
+    void testFindPage_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> sessionService.findPage("not-a-cursor", 10));
+    }
+
     // ---------- GET BY ID ----------
     @Test
     void testGetById_ShouldReturnSession_WhenExists() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.findWithUsersById(1L)).thenReturn(Optional.of(session));
 
         Session result = sessionService.getById(1L);
 
@@ -87,89 +251,448 @@ class SessionServiceTest {
 
     @Test
     void testGetById_ShouldReturnNull_WhenNotFound() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(sessionRepository.findWithUsersById(1L)).thenReturn(Optional.empty());
 
         Session result = sessionService.getById(1L);
 
         assertNull(result);
     }
 
+    @Test
+    void testGetSummaryById_ShouldReturnCountInsteadOfIds() {
+        SessionSummaryDto summary = new SessionSummaryDto(1L, "Yoga", null, "desc", 2L, 120);
+        when(sessionRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+
+        assertEquals(summary, sessionService.getSummaryById(1L));
+        verify(sessionRepository, never()).findWithUsersById(any());
+    }
+
+    // ---------- PARTICIPANTS ----------
+    @Test
+    void testFindParticipants_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        List<ParticipantDto> rows = List.of(new ParticipantDto(3L, "Ann", "A"),
+                new ParticipantDto(7L, "Bob", "B"), new ParticipantDto(9L, "Cid", "C"));
+        when(participationJdbcRepository.findParticipants(1L, 0L, 3)).thenReturn(rows);
+
+        SessionPage<ParticipantDto> page = sessionService.findParticipants(1L, null, 2);
+
+        assertEquals(rows.subList(0, 2), page.items());
+        assertEquals("7", page.nextCursor());
+    }
+
+    @Test
+    void testFindParticipants_ShouldSeekAfterCursor_OnLastPage() {
+        List<ParticipantDto> rows = List.of(new ParticipantDto(9L, "Cid", "C"));
+        when(participationJdbcRepository.findParticipants(1L, 7L, 3)).thenReturn(rows);
+
+        SessionPage<ParticipantDto> page = sessionService.findParticipants(1L, "7", 2);
+
+        assertEquals(rows, page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testFindParticipants_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> sessionService.findParticipants(1L, "abc", 2));
+    }
+
     // ---------- UPDATE ----------
     @Test
     void testUpdate_ShouldSetIdAndSave() {
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
         when(sessionRepository.save(any(Session.class))).thenReturn(session);
 
         Session updated = new Session();
-        updated.setUsers(new ArrayList<>());
+        updated.setUsers(new HashSet<>(Set.of(user)));
 
         Session result = sessionService.update(1L, updated);
 
         assertEquals(1L, result.getId());
+        assertEquals(1, updated.getBooked());
         verify(sessionRepository, times(1)).save(updated);
+        verify(sessionTextIndex).putAfterCommit(1L, session.getName(), session.getDescription());
+        verify(sessionChangeLog).saved(1L);
+        verify(sessionDtoCache).invalidate(1L);
     }
 
-    // ---------- PARTICIPATE ----------
     @Test
-    void testParticipate_ShouldAddUser() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    void testUpdate_ShouldLockThenRecountBooked() {
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
         when(sessionRepository.save(any(Session.class))).thenReturn(session);
 
+        sessionService.update(1L, new Session());
+
+        InOrder inOrder = inOrder(sessionRepository);
+        inOrder.verify(sessionRepository).findForUpdateById(1L);
+        inOrder.verify(sessionRepository).save(any(Session.class));
+        inOrder.verify(sessionRepository).recountBooked(1L);
+    }
+
+    @Test
+    void testUpdate_ShouldPromoteWaitlistIntoFreedSeats() {
+        User first = User.builder().id(2L).email("first@test.com").firstName("First").lastName("User").password("x").admin(false).build();
+        User second = User.builder().id(3L).email("second@test.com").firstName("Second").lastName("User").password("x").admin(false).build();
+        WaitlistEntry head = WaitlistEntry.builder().id(7L).session(session).user(first).build();
+        WaitlistEntry after = WaitlistEntry.builder().id(8L).session(session).user(second).build();
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.save(any(Session.class))).thenReturn(session);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(head), Optional.of(after));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1, 0);
+        when(waitlistRepository.removeEntry(7L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 2L)).thenReturn(1);
+        when(sessionRepository.findWithUsersById(1L)).thenReturn(Optional.of(session));
+
+        Session updated = new Session();
+        updated.setCapacity(2);
+        updated.setUsers(new HashSet<>(Set.of(user)));
+        sessionService.update(1L, updated);
+
+        verify(sessionChangeLog).joined(1L, 2L);
+        verify(waitlistRepository, never()).removeEntry(8L);
+        verify(sessionRepository).findWithUsersById(1L);
+    }
+
+    @Test
+    void testUpdate_ShouldReturnNull_WhenSessionMissing() {
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
+
+        assertNull(sessionService.update(1L, new Session()));
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdate_ShouldThrowConflict_WhenRosterExceedsCapacity() {
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        User other = new User();
+        other.setId(2L);
+        Session updated = new Session();
+        updated.setCapacity(1);
+        updated.setUsers(new HashSet<>(Set.of(user, other)));
+
+        assertThrows(ConflictException.class, () -> sessionService.update(1L, updated));
+        verify(sessionRepository, never()).save(any());
+        verifyNoInteractions(sessionChangeLog, sessionDtoCache);
+    }
+
+    // ---------- RECOUNT ----------
+    @Test
+    void testRecountBooked_ShouldRecountAllSessionsInSql() {
+        when(sessionRepository.recountAllBooked(any(LocalDateTime.class))).thenReturn(3);
+
+        assertEquals(3, sessionService.recountBooked());
+        verify(sessionRepository).recountAllBooked(any(LocalDateTime.class));
+    }
+
+    // ---------- PARTICIPATE ----------
+    @Test
+    void testParticipate_ShouldReserveSeatThenInsertSingleRow() {
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(1);
+
         sessionService.participate(1L, 1L);
 
-        assertTrue(session.getUsers().contains(user));
-        verify(sessionRepository, times(1)).save(session);
+        InOrder inOrder = inOrder(sessionRepository);
+        inOrder.verify(sessionRepository).reserveSeat(1L);
+        inOrder.verify(sessionRepository).addParticipant(1L, 1L);
+        verify(sessionChangeLog).joined(1L, 1L);
+        verify(sessionOccupancyBroadcaster).changed(1L);
+        verify(sessionDtoCache).invalidate(1L);
+        verify(sessionRepository, never()).findWithUsersById(any());
+        verify(sessionRepository, never()).existsById(any());
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void testParticipate_ShouldThrowConflict_WhenOthersWait() {
+        when(waitlistRepository.existsBySessionId(1L)).thenReturn(true);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> sessionService.participate(1L, 1L));
+        verify(sessionRepository, never()).reserveSeat(any());
+        verify(sessionRepository, never()).addParticipant(any(), any());
+    }
+
+    @Test
+    void testParticipate_ShouldThrowConflict_WhenSessionFull() {
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.existsByIdAndUsersId(1L, 1L)).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> sessionService.participate(1L, 1L));
+        verify(sessionRepository, never()).addParticipant(any(), any());
+        verifyNoInteractions(sessionOccupancyBroadcaster, sessionDtoCache);
     }
 
     @Test
     void testParticipate_ShouldThrowNotFound_WhenSessionMissing() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.existsById(1L)).thenReturn(true);
 
         assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 1L));
     }
 
     @Test
     void testParticipate_ShouldThrowNotFound_WhenUserMissing() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 1L));
     }
 
     @Test
     void testParticipate_ShouldThrowBadRequest_WhenAlreadyParticipate() {
-        session.getUsers().add(user);
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.existsByIdAndUsersId(1L, 1L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
+    }
+
+    @Test
+    void testParticipate_ShouldThrowBadRequest_WhenUniqueKeyRejectsConcurrentInsert() {
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenThrow(new DataIntegrityViolationException("uk_participate_session_user"));
 
         assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
     }
 
+    // ---------- BULK PARTICIPATE ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void testParticipateAll_ShouldReportEachPairAndBatchInserts() {
+        when(participationJdbcRepository.lockSeats(any())).thenReturn(Map.of(
+                1L, new Seats(null, 0),
+                2L, new Seats(2, 1)));
+        when(participationJdbcRepository.findExistingUserIds(any())).thenReturn(Set.of(10L, 11L, 12L));
+        when(participationJdbcRepository.findExistingPairs(any(), any()))
+                .thenReturn(new HashSet<>(Set.of(new ParticipationRequestDto(1L, 12L))));
+
+        List<ParticipationResultDto> results = sessionService.participateAll(List.of(
+                new ParticipationRequestDto(1L, 10L),
+                new ParticipationRequestDto(1L, 10L),
+                new ParticipationRequestDto(1L, 12L),
+                new ParticipationRequestDto(2L, 10L),
+                new ParticipationRequestDto(2L, 11L),
+                new ParticipationRequestDto(3L, 10L),
+                new ParticipationRequestDto(1L, 99L),
+                new ParticipationRequestDto(null, 10L)));
+
+        assertEquals(List.of(Outcome.ADDED, Outcome.DUPLICATE, Outcome.DUPLICATE, Outcome.ADDED,
+                        Outcome.FULL, Outcome.NOT_FOUND, Outcome.NOT_FOUND, Outcome.NOT_FOUND),
+                results.stream().map(ParticipationResultDto::getOutcome).toList());
+        verify(participationJdbcRepository).insertAll(List.of(
+                new ParticipationRequestDto(1L, 10L), new ParticipationRequestDto(2L, 10L)));
+        verify(participationJdbcRepository).addBooked(Map.of(1L, 1, 2L, 1));
+        verify(sessionChangeLog).joinedAll(List.of(
+                new ParticipationRequestDto(1L, 10L), new ParticipationRequestDto(2L, 10L)));
+        verify(sessionOccupancyBroadcaster).changedAll(Set.of(1L, 2L));
+        verify(sessionDtoCache).invalidateAll(Set.of(1L, 2L));
+        ArgumentCaptor<Collection<Long>> sessionIds = ArgumentCaptor.forClass(Collection.class);
+        verify(participationJdbcRepository).lockSeats(sessionIds.capture());
+        assertEquals(List.of(1L, 2L, 3L), new ArrayList<>(sessionIds.getValue()));
+    }
+
+    @Test
+    void testParticipateAll_ShouldNotWrite_WhenNothingToAdd() {
+        when(participationJdbcRepository.lockSeats(any())).thenReturn(Map.of());
+        when(participationJdbcRepository.findExistingUserIds(any())).thenReturn(Set.of(10L));
+
+        List<ParticipationResultDto> results = sessionService.participateAll(List.of(new ParticipationRequestDto(5L, 10L)));
+
+        assertEquals(Outcome.NOT_FOUND, results.get(0).getOutcome());
+        verify(participationJdbcRepository, never()).findExistingPairs(any(), any());
+        verify(participationJdbcRepository, never()).insertAll(any());
+        verify(participationJdbcRepository, never()).addBooked(any());
+        verifyNoInteractions(sessionChangeLog, sessionOccupancyBroadcaster, sessionDtoCache);
+    }
+
     // ---------- NO LONGER PARTICIPATE ----------
     @Test
-    void testNoLongerParticipate_ShouldRemoveUser() {
-        session.getUsers().add(user);
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+    void testNoLongerParticipate_ShouldReleaseSeat_WhenWaitlistEmpty() {
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.empty());
 
         sessionService.noLongerParticipate(1L, 1L);
 
-        assertTrue(session.getUsers().isEmpty());
-        verify(sessionRepository, times(1)).save(session);
+        InOrder inOrder = inOrder(sessionRepository);
+        inOrder.verify(sessionRepository).releaseSeat(1L);
+        inOrder.verify(sessionRepository).removeParticipant(1L, 1L);
+        verify(sessionChangeLog).left(1L, 1L);
+        verify(sessionOccupancyBroadcaster).changed(1L);
+        verify(sessionDtoCache).invalidate(1L);
+        verify(sessionRepository, never()).reserveSeat(any());
+        verify(sessionRepository, never()).existsById(any());
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void testNoLongerParticipate_ShouldPromoteWaitlistHead() {
+        User next = User.builder().id(2L).email("next@test.com").firstName("Next").lastName("User").password("x").admin(false).build();
+        WaitlistEntry head = WaitlistEntry.builder().id(7L).session(session).user(next).build();
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(head));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(waitlistRepository.removeEntry(7L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 2L)).thenReturn(1);
+
+        sessionService.noLongerParticipate(1L, 1L);
+
+        verify(sessionRepository, times(1)).addParticipant(1L, 2L);
+        verify(sessionChangeLog).left(1L, 1L);
+        verify(sessionChangeLog).joined(1L, 2L);
+        verify(sessionRepository, times(1)).releaseSeat(1L);
+        verify(waitlistRepository, times(1)).findFirstBySessionIdOrderByIdAsc(1L);
+    }
+
+    @Test
+    void testNoLongerParticipate_ShouldSkipEntryRemovedConcurrently() {
+        User gone = User.builder().id(2L).email("gone@test.com").firstName("Gone").lastName("User").password("x").admin(false).build();
+        WaitlistEntry stale = WaitlistEntry.builder().id(7L).session(session).user(gone).build();
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(stale), Optional.empty());
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(waitlistRepository.removeEntry(7L)).thenReturn(0);
+
+        sessionService.noLongerParticipate(1L, 1L);
+
+        verify(sessionRepository, never()).addParticipant(any(), any());
+        verify(sessionRepository, times(2)).releaseSeat(1L);
     }
 
     @Test
     void testNoLongerParticipate_ShouldThrowNotFound_WhenSessionMissing() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> sessionService.noLongerParticipate(1L, 1L));
     }
 
     @Test
-    void testNoLongerParticipate_ShouldThrowBadRequest_WhenUserNotParticipate() {
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+    void testNoLongerParticipate_ShouldThrowBadRequest_WhenNotParticipating() {
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
 
         assertThrows(BadRequestException.class, () -> sessionService.noLongerParticipate(1L, 1L));
+        verify(waitlistRepository, never()).findFirstBySessionIdOrderByIdAsc(any());
+    }
+
+    // ---------- WAITLIST ----------
+    @Test
+    void testJoinWaitlist_ShouldQueue_WhenSessionFull() {
+        session.setCapacity(1);
+        session.setBooked(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(waitlistRepository.positionOf(1L, 1L)).thenReturn(0L, 3L);
+
+        long position = sessionService.joinWaitlist(1L, 1L);
+
+        assertEquals(3L, position);
+        verify(waitlistRepository, times(1)).save(any(WaitlistEntry.class));
+        verify(sessionRepository, never()).reserveSeat(any());
+    }
+
+    @Test
+    void testJoinWaitlist_ShouldBook_WhenSeatAvailable() {
+        session.setCapacity(2);
+        session.setBooked(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(1);
+
+        long position = sessionService.joinWaitlist(1L, 1L);
+
+        assertEquals(0L, position);
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    void testJoinWaitlist_ShouldPromoteWaitingUsersBeforeNewcomer() {
+        User next = User.builder().id(2L).email("next@test.com").firstName("Next").lastName("User").password("x").admin(false).build();
+        WaitlistEntry head = WaitlistEntry.builder().id(7L).session(session).user(next).build();
+        session.setCapacity(2);
+        session.setBooked(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(waitlistRepository.positionOf(1L, 1L)).thenReturn(0L, 1L);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(head), Optional.empty());
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(waitlistRepository.removeEntry(7L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 2L)).thenReturn(1);
+
+        long position = sessionService.joinWaitlist(1L, 1L);
+
+        assertEquals(1L, position);
+        verify(sessionChangeLog).joined(1L, 2L);
+        verify(sessionRepository, never()).addParticipant(1L, 1L);
+        verify(waitlistRepository).save(any(WaitlistEntry.class));
+    }
+
+    @Test
+    void testJoinWaitlist_ShouldQueue_WhenOthersAlreadyWait() {
+        session.setCapacity(2);
+        session.setBooked(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(waitlistRepository.positionOf(1L, 1L)).thenReturn(0L, 2L);
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(waitlistRepository.existsBySessionId(1L)).thenReturn(true);
+
+        assertEquals(2L, sessionService.joinWaitlist(1L, 1L));
+        verify(sessionRepository, never()).addParticipant(any(), any());
+    }
+
+    @Test
+    void testJoinWaitlist_ShouldKeepExistingPlace() {
+        session.setCapacity(1);
+        session.setBooked(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(waitlistRepository.positionOf(1L, 1L)).thenReturn(2L);
+
+        assertEquals(2L, sessionService.joinWaitlist(1L, 1L));
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    void testJoinWaitlist_ShouldThrowBadRequest_WhenAlreadyParticipate() {
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.existsByIdAndUsersId(1L, 1L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> sessionService.joinWaitlist(1L, 1L));
+    }
+
+    @Test
+    void testJoinWaitlist_ShouldThrowNotFound_WhenSessionMissing() {
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> sessionService.joinWaitlist(1L, 1L));
+    }
+
+    @Test
+    void testWaitlistPosition_ShouldThrowNotFound_WhenNotQueued() {
+        when(waitlistRepository.positionOf(1L, 1L)).thenReturn(0L);
+
+        assertThrows(NotFoundException.class, () -> sessionService.waitlistPosition(1L, 1L));
+    }
+
+    @Test
+    void testLeaveWaitlist_ShouldRemoveEntry() {
+        WaitlistEntry entry = WaitlistEntry.builder().id(7L).session(session).user(user).build();
+        when(waitlistRepository.findBySessionIdAndUserId(1L, 1L)).thenReturn(Optional.of(entry));
+
+        sessionService.leaveWaitlist(1L, 1L);
+
+        verify(waitlistRepository, times(1)).removeEntry(7L);
     }
 }
 
@@ -0,0 +1,176 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repositorys.SessionRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filtres de la recherche, et plans d'exécution H2 des requêtes réellement générées : les
+ * valeurs des critères sont écrites en littéraux dans le SQL, capturé puis passé à
+ * {@code EXPLAIN}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline")
+@ActiveProfiles("test")
+class SessionSpecificationsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(StatementCapture capture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, capture);
+        }
+    }
+
+    static class StatementCapture implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        synchronized String lastSelectFrom(String table) {
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                String sql = statements.get(i);
+                if (sql.startsWith("select") && sql.contains(" from " + table + " ")) {
+                    return sql;
+                }
+            }
+            throw new AssertionError("No select on " + table);
+        }
+    }
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCapture capture;
+
+    private Teacher alice;
+    private Teacher bob;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(new Teacher(null, "Alice", "Martin", null, null));
+        bob = entityManager.persist(new Teacher(null, "Bob", "Durand", null, null));
+        user = entityManager.persist(User.builder()
+                .email("search@test.com").firstName("Search").lastName("User").password("password").admin(false).build());
+        for (int day = 0; day < 60; day++) {
+            Teacher teacher = day % 2 == 0 ? alice : bob;
+            Session session = Session.builder()
+                    .name(day % 3 == 0 ? "Yin Yoga" : "Hatha 100%")
+                    .description("Session " + day)
+                    .date(BASE.plusDays(day))
+                    .teacher(teacher)
+                    .capacity(day % 5 == 0 ? 1 : null)
+                    .booked(day % 5 == 0 ? 1 : 0)
+                    .users(day % 7 == 0 ? Set.of(user) : Set.of())
+                    .build();
+            entityManager.persist(session);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testMatching_CombinesFilters() {
+        SessionSearch search = new SessionSearch(BASE, BASE.plusDays(30), alice.getId(), "YIN", true, null);
+
+        List<Session> found = find(search, null, 100);
+
+        // Jours pairs (Alice), multiples de 3 (Yin), pas multiples de 5 (complets) : 6, 12, 18, 24.
+        assertThat(found).extracting(Session::getDescription)
+                .containsExactly("Session 6", "Session 12", "Session 18", "Session 24");
+    }
+
+    @Test
+    void testMatching_ParticipantAndEscapedName() {
+        assertThat(find(new SessionSearch(null, null, null, null, false, user.getId()), null, 100))
+                .extracting(Session::getDescription)
+                .containsExactly("Session 0", "Session 7", "Session 14", "Session 21", "Session 28",
+                        "Session 35", "Session 42", "Session 49", "Session 56");
+        assertThat(find(new SessionSearch(null, null, null, "100%", false, null), null, 100)).hasSize(40);
+        assertThat(find(new SessionSearch(null, null, null, "1000", false, null), null, 100)).isEmpty();
+    }
+
+    @Test
+    void testMatching_AfterCursorContinuesInDateIdOrder() {
+        SessionSearch search = new SessionSearch(null, null, bob.getId(), null, false, null);
+        List<Session> first = find(search, null, 2);
+        Session last = first.get(1);
+        List<Session> second = find(search, new SessionCursor(last.getDate(), last.getId()), 2);
+
+        assertThat(first).extracting(Session::getDescription).containsExactly("Session 1", "Session 3");
+        assertThat(second).extracting(Session::getDescription).containsExactly("Session 5", "Session 7");
+    }
+
+    @Test
+    void testPlan_TeacherAndPeriodUseTeacherDateIndex() {
+        find(new SessionSearch(BASE, BASE.plusDays(14), alice.getId(), null, false, null), null, 50);
+
+        assertThat(explain(capture.lastSelectFrom("sessions"))).containsIgnoringCase("idx_sessions_teacher_date_id");
+    }
+
+    @Test
+    void testPlan_PeriodUsesDateIndex() {
+        find(new SessionSearch(BASE.plusDays(10), BASE.plusDays(14), null, "yin", true, null), null, 50);
+
+        assertThat(explain(capture.lastSelectFrom("sessions"))).containsIgnoringCase("idx_sessions_date_id");
+    }
+
+    @Test
+    void testPlan_ParticipantUsesUserSessionIndex() {
+        find(new SessionSearch(null, null, null, null, false, user.getId()), null, 50);
+
+        assertThat(explain(capture.lastSelectFrom("sessions"))).containsIgnoringCase("idx_participate_user_session");
+    }
+
+    private List<Session> find(SessionSearch search, SessionCursor after, int limit) {
+        return sessionRepository.findBy(SessionSpecifications.matching(search, after),
+                query -> query.sortBy(SessionSpecifications.ORDER).limit(limit).all());
+    }
+
+    /**
+     * Plan H2 de {@code sql} ; seul le nombre de lignes reste un paramètre JDBC.
+     */
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql.replace("?", "50"), String.class);
+        assertThat(plan).isNotNull();
+        return plan;
+    }
+}
@@ -0,0 +1,151 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repositorys.SessionJdbcRepository;
+import com.openclassrooms.starterjwt.repositorys.SessionJdbcRepository.TextConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class SessionTextIndexTest {
+
+    @Mock
+    private SessionJdbcRepository sessionJdbcRepository;
+
+    private SessionTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new SessionTextIndex(sessionJdbcRepository);
+        index.put(1L, "Yoga du matin", "Séance douce pour bien commencer la journée.");
+        index.put(2L, "Pilates", "Renforcement profond, un peu de yoga en fin de séance.");
+        index.put(3L, "Yin Yoga", "Postures longues, respiration et méditation.");
+        index.put(4L, "Zumba", "Danse et cardio.");
+    }
+
+    @Test
+    void testTokenize_LowercasesStripsAccentsAndShortWords() {
+        assertEquals(List.of("seance", "hiit", "15", "min", "ete"),
+                SessionTextIndex.tokenize("Séance HIIT-15 min, à l'été"));
+    }
+
+    @Test
+    void testSearch_RanksNameMatchesFirst() {
+        SessionTextIndex.Result result = index.search("yoga", 0, 10);
+
+        assertEquals(3, result.total());
+        assertEquals(List.of(1L, 3L, 2L), ids(result));
+        assertTrue(result.hits().get(1).score() > result.hits().get(2).score());
+    }
+
+    @Test
+    void testSearch_MatchesEveryWordAsPrefix() {
+        assertEquals(List.of(1L), ids(index.search("yo MAT", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("seance", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("médit", 0, 10)));
+        assertEquals(0, index.search("yoga danse", 0, 10).total());
+        assertEquals(0, index.search("?!", 0, 10).total());
+    }
+
+    @Test
+    void testSearch_PagesTheRankedHits() {
+        SessionTextIndex.Result page = index.search("yoga", 1, 1);
+
+        assertEquals(3, page.total());
+        assertEquals(List.of(3L), ids(page));
+        assertTrue(index.search("yoga", 5, 10).hits().isEmpty());
+    }
+
+    @Test
+    void testPutAndRemove_UpdateTheIndexIncrementally() {
+        int terms = index.terms();
+
+        index.put(4L, "Zumba Yoga", "Danse et cardio.");
+        assertEquals(List.of(1L, 3L, 4L, 2L), ids(index.search("yoga", 0, 10)));
+
+        index.put(3L, "Stretching", "Étirements.");
+        index.remove(1L);
+        assertEquals(List.of(4L, 2L), ids(index.search("yoga", 0, 10)));
+        assertEquals(0, index.search("meditation", 0, 10).total());
+        assertEquals(3, index.documents());
+        assertTrue(index.terms() < terms + 2);
+
+        index.put(5L, "Yoga du soir", "Détente.");
+        // À score égal, l'id croissant départage.
+        assertEquals(List.of(4L, 5L, 2L), ids(index.search("yoga", 0, 10)));
+    }
+
+    @Test
+    void testPutAndRemoveAfterCommit_LeaveTheIndexUntouchedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.putAfterCommit(5L, "Yoga du soir", "Détente.");
+            index.removeAfterCommit(1L);
+            assertEquals(List.of(1L, 3L, 2L), ids(index.search("yoga", 0, 10)));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(1L, 3L, 2L), ids(index.search("yoga", 0, 10)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.putAfterCommit(5L, "Yoga du soir", "Détente.");
+            index.removeAfterCommit(1L);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(3L, 5L, 2L), ids(index.search("yoga", 0, 10)));
+    }
+
+    @Test
+    void testRebuild_ReplacesContentFromTheDatabase() {
+        doAnswer(invocation -> {
+            TextConsumer consumer = invocation.getArgument(0);
+            consumer.accept(10L, "Hatha", "Postures tenues.");
+            consumer.accept(11L, "Hatha flow", null);
+            return null;
+        }).when(sessionJdbcRepository).forEachText(any());
+
+        index.rebuild();
+
+        assertEquals(2, index.documents());
+        assertEquals(List.of(10L, 11L), ids(index.search("hat", 0, 10)));
+        assertEquals(0, index.search("yoga", 0, 10).total());
+    }
+
+    @Test
+    void testMemory_IsReportedAndGrowsWithContent() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+        double before = registry.get("session.text-index.memory").gauge().value();
+
+        for (long id = 100; id < 200; id++) {
+            index.put(id, "Session " + id, "Description numéro " + id + " avec des mots variés " + (id * 31));
+        }
+
+        assertTrue(before > 0);
+        assertTrue(registry.get("session.text-index.memory").gauge().value() > before);
+        assertEquals(104, registry.get("session.text-index.documents").gauge().value());
+    }
+
+    private static List<Long> ids(SessionTextIndex.Result result) {
+        return result.hits().stream().map(SessionTextIndex.Hit::sessionId).toList();
+    }
+}
@@ -1,11 +1,14 @@
 package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.dto.RegisterRequestDto;
+import com.openclassrooms.starterjwt.exceptions.ConflictException;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repositorys.UserRepository;
+import com.openclassrooms.starterjwt.security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -21,6 +24,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -50,25 +56,44 @@ class UserServiceTest {
     // ---------- createUser ----------
     @Test
     void testCreateUser_ShouldCreate_WhenEmailNotExists() {
-        when(userRepository.existsByEmail("john.doe@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
-        userService.createUser(registerRequest);
+        User created = userService.createUser(registerRequest);
 
-        verify(userRepository, times(1)).save(any(User.class));
+        assertEquals(user, created);
+        verify(passwordEncoder, times(1)).encode("password123");
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userDetailsCache).invalidate("john.doe@example.com");
     }
 
     @Test
     void testCreateUser_ShouldThrowException_WhenEmailAlreadyExists() {
-        when(userRepository.existsByEmail("john.doe@example.com")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for users.email"));
+        when(userRepository.existsByEmailWithoutFlush(registerRequest.getEmail())).thenReturn(true);
 
-        IllegalStateException exception = assertThrows(
-                IllegalStateException.class,
+        ConflictException exception = assertThrows(
+                ConflictException.class,
                 () -> userService.createUser(registerRequest)
         );
 
         assertEquals("Error: Email is already taken!", exception.getMessage());
-        verify(userRepository, never()).save(any());
+        verify(userDetailsCache, never()).invalidate(any());
+    }
+
+    @Test
+    void testCreateUser_ShouldRethrow_WhenAnotherConstraintFails() {
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("NULL not allowed for column FIRST_NAME");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+        when(userRepository.existsByEmailWithoutFlush(registerRequest.getEmail())).thenReturn(false);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.createUser(registerRequest)));
+        verify(userDetailsCache, never()).invalidate(any());
     }
 
     // ---------- existsByEmail ----------
@@ -97,6 +122,7 @@ class UserServiceTest {
     void testDeleteUser_ShouldCallRepositoryDelete() {
         userService.deleteUser(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userDetailsCache).invalidateById(1L);
     }
 
     // ---------- findById ----------
@@ -4,11 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -58,12 +62,12 @@ class MapperHelperTest {
         User user2 = new User();
         user2.setId(2L);
 
-        when(userService.findById(1L)).thenReturn(Optional.of(user1));
-        when(userService.findById(2L)).thenReturn(Optional.of(user2));
+        when(userService.findAllById(Set.of(1L, 2L))).thenReturn(List.of(user1, user2));
 
-        List<User> result = mapperHelper.mapUsers(List.of(1L, 2L));
+        Set<User> result = mapperHelper.mapUsers(List.of(1L, 2L, 2L));
         assertEquals(2, result.size());
         assertTrue(result.containsAll(List.of(user1, user2)));
+        verify(userService, never()).findById(any());
     }
 
     @Test
@@ -79,7 +83,7 @@ class MapperHelperTest {
         User user2 = new User();
         user2.setId(2L);
 
-        List<Long> ids = mapperHelper.mapUserIds(List.of(user1, user2));
+        List<Long> ids = mapperHelper.mapUserIds(Set.of(user2, user1));
         assertEquals(List.of(1L, 2L), ids);
     }
 
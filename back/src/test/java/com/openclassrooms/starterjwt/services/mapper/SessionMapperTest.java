@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
@@ -41,7 +42,7 @@ class SessionMapperTest {
         user2.setId(20L);
 
         when(mapperHelper.mapTeacher(1L)).thenReturn(teacher);
-        when(mapperHelper.mapUsers(List.of(10L, 20L))).thenReturn(List.of(user1, user2));
+        when(mapperHelper.mapUsers(List.of(10L, 20L))).thenReturn(Set.of(user1, user2));
 
         Session entity = sessionMapper.toEntity(dto);
 
@@ -61,7 +62,7 @@ class SessionMapperTest {
 
         Session entity = new Session();
         entity.setTeacher(teacher);
-        entity.setUsers(List.of(user1, user2));
+        entity.setUsers(Set.of(user1, user2));
 
         when(mapperHelper.mapUserIds(entity.getUsers())).thenReturn(List.of(10L, 20L));
 
@@ -1,4 +1,5 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
+import { MatButtonModule } from '@angular/material/button';
 import { MatCardModule } from '@angular/material/card';
 import { MatIconModule } from '@angular/material/icon';
 import { expect } from '@jest/globals';
@@ -23,7 +24,7 @@ describe('ListComponent', () => {
 
   beforeEach(async () => {
     mockSessionApiService = {
-      all: jest.fn().mockReturnValue(of(sessionsMock))
+      page: jest.fn().mockReturnValue(of({ sessions: sessionsMock, nextCursor: null }))
     };
 
     mockSessionService = {
@@ -32,7 +33,7 @@ describe('ListComponent', () => {
 
     await TestBed.configureTestingModule({
       declarations: [ListComponent],
-      imports: [MatCardModule, MatIconModule,RouterTestingModule,],
+      imports: [MatButtonModule, MatCardModule, MatIconModule,RouterTestingModule,],
       providers: [
         { provide: SessionApiService, useValue: mockSessionApiService },
         { provide: SessionService, useValue: mockSessionService }
@@ -90,4 +91,25 @@ describe('ListComponent', () => {
     const editButtons = fixture.debugElement.queryAll(By.css('[data-testid="edit-btn"]'));
     expect(editButtons.length).toBe(sessionsMock.length);
   });
+
+  // ✅ Test : pagination par curseur avec le bouton "Load more"
+  it('should load the next page only when asked and hide the button on the last page', () => {
+    const next = { id: 3, name: 'Zumba', description: 'Dance', date: new Date() };
+    (mockSessionApiService.page as jest.Mock)
+      .mockReturnValueOnce(of({ sessions: sessionsMock, nextCursor: 'abc' }))
+      .mockReturnValueOnce(of({ sessions: [next], nextCursor: null }));
+    fixture = TestBed.createComponent(ListComponent);
+    component = fixture.componentInstance;
+    fixture.detectChanges();
+
+    expect(mockSessionApiService.page).toHaveBeenLastCalledWith(undefined);
+    expect(fixture.debugElement.queryAll(By.css('.item')).length).toBe(2);
+
+    fixture.debugElement.query(By.css('[data-testid="load-more-btn"]')).nativeElement.click();
+    fixture.detectChanges();
+
+    expect(mockSessionApiService.page).toHaveBeenLastCalledWith('abc');
+    expect(fixture.debugElement.queryAll(By.css('.item')).length).toBe(3);
+    expect(fixture.debugElement.query(By.css('[data-testid="load-more-btn"]'))).toBeNull();
+  });
 });
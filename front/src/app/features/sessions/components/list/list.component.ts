@@ -1,5 +1,4 @@
-import { Component } from '@angular/core';
-import { Observable } from 'rxjs';
+import { Component, OnInit } from '@angular/core';
 import { SessionInformation } from '../../../../interfaces/sessionInformation.interface';
 import { SessionService } from '../../../../services/session.service';
 import { Session } from '../../interfaces/session.interface';
@@ -10,15 +9,34 @@ import { SessionApiService } from '../../services/session-api.service';
   templateUrl: './list.component.html',
   styleUrls: ['./list.component.scss']
 })
-export class ListComponent {
+export class ListComponent implements OnInit {
 
-  public sessions$: Observable<Session[]> = this.sessionApiService.all();
+  public sessions: Session[] = [];
+  public nextCursor: string | null = null;
+  public loading = false;
 
   constructor(
     private sessionService: SessionService,
     private sessionApiService: SessionApiService
   ) { }
 
+  public ngOnInit(): void {
+    this.loadMore();
+  }
+
+  // Appends the next page of the list; the button disappears once the last page is loaded.
+  public loadMore(): void {
+    this.loading = true;
+    this.sessionApiService.page(this.nextCursor ?? undefined).subscribe({
+      next: page => {
+        this.sessions = this.sessions.concat(page.sessions);
+        this.nextCursor = page.nextCursor;
+        this.loading = false;
+      },
+      error: () => this.loading = false
+    });
+  }
+
   get user(): SessionInformation | undefined {
     return this.sessionService.sessionInformation;
   }
@@ -26,18 +26,27 @@ describe('SessionApiService', () => {
     expect(service).toBeTruthy();
   });
 
-  // ✅ all()
-  it('should fetch all sessions', () => {
+  // ✅ page()
+  it('should fetch the first page of sessions', () => {
     const mockSessions: Session[] = [];
-    service.all().subscribe(data => expect(data).toEqual(mockSessions));
+    service.page().subscribe(page => expect(page).toEqual({ sessions: mockSessions, nextCursor: null }));
 
     const req = httpMock.expectOne('api/session');
     expect(req.request.method).toBe('GET');
     req.flush(mockSessions);
   });
 
-  it('should handle error on all()', () => {
-    service.all().subscribe({
+  it('should pass the cursor and return X-Next-Cursor', () => {
+    const second: Session = { id: 2, name: 'Second', description: 'Desc', date: new Date(), teacher_id: 1, users: [] };
+    service.page('abc').subscribe(page => expect(page).toEqual({ sessions: [second], nextCursor: 'def' }));
+
+    const req = httpMock.expectOne('api/session?cursor=abc');
+    expect(req.request.method).toBe('GET');
+    req.flush([second], { headers: { 'X-Next-Cursor': 'def' } });
+  });
+
+  it('should handle error on page()', () => {
+    service.page().subscribe({
       next: () => fail('should fail'),
       error: err => expect(err.status).toBe(500),
     });
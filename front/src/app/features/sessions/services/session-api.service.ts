@@ -1,6 +1,8 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import { Observable } from 'rxjs';
+import { map } from 'rxjs/operators';
+import { SessionPage } from '../interfaces/session-page.interface';
 import { Session } from '../interfaces/session.interface';
 
 @Injectable({
@@ -13,8 +15,12 @@ export class SessionApiService {
   constructor(private httpClient: HttpClient) {
   }
 
-  public all(): Observable<Session[]> {
-    return this.httpClient.get<Session[]>(this.pathService);
+  // One page of the keyset-paginated list; nextCursor is null on the last page.
+  public page(cursor?: string): Observable<SessionPage> {
+    const params = cursor ? new HttpParams().set('cursor', cursor) : undefined;
+    return this.httpClient.get<Session[]>(this.pathService, { params, observe: 'response' }).pipe(
+      map(response => ({ sessions: response.body ?? [], nextCursor: response.headers.get('X-Next-Cursor') }))
+    );
   }
 
   public detail(id: string): Observable<Session> {